@@ -0,0 +1,53 @@
+package com.mark.projectmng.benchmark;
+
+import com.mark.projectmng.web.rest.AuthenticateController;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmark of {@link AuthenticateController#createToken}, signing with the same HMAC setup as the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateTokenBenchmark {
+
+    private static final String BASE64_SECRET =
+        "YmVuY2htYXJrLXNlY3JldC1vZi1hdC1sZWFzdC02NC1ieXRlcy1mb3ItaG1hYy1zaGEtNTEyLXNpZ25hdHVyZXMtb25seQ==";
+
+    private AuthenticateController authenticateController;
+
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        SecretKeySpec secretKey = new SecretKeySpec(Base64.getDecoder().decode(BASE64_SECRET), MacAlgorithm.HS512.getName());
+        authenticateController = new AuthenticateController(new NimbusJwtEncoder(new ImmutableSecret<>(secretKey)), null, null);
+        ReflectionTestUtils.setField(authenticateController, "tokenValidityInSeconds", 86400L);
+        ReflectionTestUtils.setField(authenticateController, "tokenValidityInSecondsForRememberMe", 2592000L);
+        authentication =
+            new UsernamePasswordAuthenticationToken(
+                "user",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+            );
+    }
+
+    @Benchmark
+    public String createToken() {
+        return authenticateController.createToken(authentication, false);
+    }
+}
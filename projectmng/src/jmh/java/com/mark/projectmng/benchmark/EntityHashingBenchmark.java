@@ -0,0 +1,72 @@
+package com.mark.projectmng.benchmark;
+
+import com.mark.projectmng.domain.AbstractEntity;
+import com.mark.projectmng.domain.EffortRecord;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of entities used as keys of hash-based collections, which rely on their {@code equals}/{@code hashCode}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityHashingBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    private List<EffortRecord> effortRecords;
+
+    private List<EffortRecord> lookups;
+
+    private Set<EffortRecord> effortRecordSet;
+
+    @Setup
+    public void setUp() {
+        effortRecords = new ArrayList<>(size);
+        lookups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // as loaded from the database, with the uid stored along the row
+            EffortRecord effortRecord = new EffortRecord().id((long) i).effort(1f).tenantId(1);
+            effortRecord.setUid(AbstractEntity.newUid());
+            effortRecords.add(effortRecord);
+            // equal but distinct instances, as loaded by another persistence context
+            EffortRecord lookup = new EffortRecord().id((long) i).effort(1f).tenantId(1);
+            lookup.setUid(effortRecord.getUid());
+            lookups.add(lookup);
+        }
+        effortRecordSet = new HashSet<>(effortRecords);
+    }
+
+    @Benchmark
+    public Set<EffortRecord> buildSet() {
+        return new HashSet<>(effortRecords);
+    }
+
+    @Benchmark
+    public void containsAll(Blackhole blackhole) {
+        for (EffortRecord lookup : lookups) {
+            blackhole.consume(effortRecordSet.contains(lookup));
+        }
+    }
+
+    @Benchmark
+    public Map<EffortRecord, Integer> buildMap() {
+        Map<EffortRecord, Integer> map = new HashMap<>(size * 2);
+        for (EffortRecord effortRecord : effortRecords) {
+            map.merge(effortRecord, 1, Integer::sum);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mark.projectmng.benchmark;
+
+import com.mark.projectmng.domain.User;
+import com.mark.projectmng.service.MailTemplateRenderer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of the rendering of the mail templates, directly by Thymeleaf as {@code MailService} used to, and
+ * by the precompiled templates of {@link MailTemplateRenderer}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MailTemplateBenchmark {
+
+    @Param({ "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail" })
+    private String templateName;
+
+    private SpringTemplateEngine templateEngine;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private MailTemplateRenderer renderer;
+
+    private User user;
+
+    private Locale locale;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        messageSource.setUseCodeAsDefaultMessage(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+
+        renderer =
+            new MailTemplateRenderer(
+                templateEngine,
+                messageSource,
+                jHipsterProperties,
+                true,
+                new String[] { templateName },
+                new String[] { "en" }
+            );
+        renderer.precompileTemplates();
+
+        user = new User();
+        user.setLogin("john.doe");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe@localhost");
+        user.setImageUrl("http://placehold.it/50x50");
+        user.setLangKey("en");
+        user.setActivationKey("sP3pR9kT2vX7wQ1mN8bC");
+        user.setResetKey("aZ4yH6jL0fD5gS3eR2tU");
+        locale = Locale.forLanguageTag(user.getLangKey());
+    }
+
+    @Benchmark
+    public void direct(Blackhole blackhole) {
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+        blackhole.consume(templateEngine.process(templateName, context));
+        blackhole.consume(messageSource.getMessage("email.activation.title", null, locale));
+    }
+
+    @Benchmark
+    public void precompiled(Blackhole blackhole) {
+        blackhole.consume(renderer.render(templateName, user, locale));
+        blackhole.consume(renderer.subject("email.activation.title", locale));
+    }
+}
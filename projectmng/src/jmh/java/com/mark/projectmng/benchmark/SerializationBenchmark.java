@@ -0,0 +1,73 @@
+package com.mark.projectmng.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mark.projectmng.domain.EffortRecord;
+import com.mark.projectmng.domain.Project;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of the Jackson serialization of entity lists, as returned by the list endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({ "20", "1000" })
+    private int size;
+
+    private ObjectWriter writer;
+
+    private List<EffortRecord> effortRecords;
+
+    private List<Project> projects;
+
+    @Setup
+    public void setUp() {
+        // the same settings as the ObjectMapper of the application for the types involved
+        writer =
+            new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writer();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        effortRecords = new ArrayList<>(size);
+        projects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            effortRecords.add(
+                new EffortRecord()
+                    .id((long) i)
+                    .effort(7.5f)
+                    .workDate(now.minus(i, ChronoUnit.DAYS))
+                    .notes("Worked on feature " + i)
+                    .projectId(i % 50)
+                    .empId(i % 200)
+                    .tenantId(1)
+                    .createdAt(now)
+                    .createdBy(1)
+            );
+            projects.add(
+                new Project().id((long) i).num("P" + i).name("Project " + i).status("1").mngId(i % 200).tenantId(1).createdAt(now).createdBy(1)
+            );
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEffortRecords() throws JsonProcessingException {
+        return writer.writeValueAsBytes(effortRecords);
+    }
+
+    @Benchmark
+    public byte[] serializeProjects() throws JsonProcessingException {
+        return writer.writeValueAsBytes(projects);
+    }
+}
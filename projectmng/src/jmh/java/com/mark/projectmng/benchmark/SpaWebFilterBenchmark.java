@@ -0,0 +1,74 @@
+package com.mark.projectmng.benchmark;
+
+import com.mark.projectmng.web.filter.SpaRouteClassifier;
+import com.mark.projectmng.web.filter.SpaWebFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Benchmark of the {@link SpaWebFilter} overhead per request: routing alone, the way it used to be done and with
+ * the {@link SpaRouteClassifier}, and the whole filter, where a client route gets the in-memory
+ * {@code index.html} and any other request goes down the chain. The filter measures include the allocation of
+ * the mock response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpaWebFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> {};
+
+    @Param({ "/", "/project/12/effort-records/new", "/api/projects/12", "/management/health", "/content/main.js" })
+    private String path;
+
+    private final SpaRouteClassifier routes = new SpaRouteClassifier("/api", "/management", "/v3/api-docs");
+
+    private SpaWebFilter filter;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        StringBuilder index = new StringBuilder("<!doctype html><html lang=\"en\"><head><meta charset=\"utf-8\"/>");
+        for (int i = 0; i < 40; i++) {
+            index.append("<link rel=\"preload\" href=\"/content/chunk-").append(i).append(".js\" as=\"script\"/>");
+        }
+        index.append("</head><body><jhi-main></jhi-main></body></html>");
+        filter = new SpaWebFilter(new ByteArrayResource(index.toString().getBytes(StandardCharsets.UTF_8)));
+        request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+    }
+
+    @Benchmark
+    public boolean regexRouting() {
+        return (
+            !path.startsWith("/api") &&
+            !path.startsWith("/management") &&
+            !path.startsWith("/v3/api-docs") &&
+            !path.contains(".") &&
+            path.matches("/(.*)")
+        );
+    }
+
+    @Benchmark
+    public boolean trieRouting() {
+        return routes.isSpaRoute(path);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, CHAIN);
+        return response;
+    }
+}
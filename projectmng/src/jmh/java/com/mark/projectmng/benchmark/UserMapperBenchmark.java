@@ -0,0 +1,65 @@
+package com.mark.projectmng.benchmark;
+
+import com.mark.projectmng.domain.Authority;
+import com.mark.projectmng.domain.User;
+import com.mark.projectmng.service.dto.AdminUserDTO;
+import com.mark.projectmng.service.dto.UserDTO;
+import com.mark.projectmng.service.mapper.UserMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of the {@link UserMapper} conversions used by the user endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    @Param({ "20", "1000" })
+    private int size;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> users;
+
+    private AdminUserDTO userDTO;
+
+    @Setup
+    public void setUp() {
+        Authority user = new Authority();
+        user.setName("ROLE_USER");
+        Authority admin = new Authority();
+        admin.setName("ROLE_ADMIN");
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User entity = new User();
+            entity.setId((long) i);
+            entity.setLogin("user-" + i);
+            entity.setFirstName("First" + i);
+            entity.setLastName("Last" + i);
+            entity.setEmail("user-" + i + "@localhost");
+            entity.setActivated(true);
+            entity.setLangKey("en");
+            entity.setAuthorities(i % 10 == 0 ? Set.of(user, admin) : Set.of(user));
+            users.add(entity);
+        }
+        userDTO = new AdminUserDTO(users.get(0));
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public User userDTOToUser() {
+        return userMapper.userDTOToUser(userDTO);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks of hot paths, run with the {@code benchmark} Maven profile.
+ */
+package com.mark.projectmng.benchmark;
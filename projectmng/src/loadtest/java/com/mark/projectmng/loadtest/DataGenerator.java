@@ -0,0 +1,247 @@
+package com.mark.projectmng.loadtest;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Synthetic data generator: tenants, orgs, employees, projects, projectMembers and effortRecords, written with
+ * JDBC batches rather than through the entities so that millions of rows load in seconds.
+ * <p>
+ * Each row gets a random {@code uid}, the key entities are compared on. Identity columns and the effortRecord
+ * sequence are restarted past the generated ids, so that rows created through the API afterwards do not collide
+ * with them. Rows written this way bypass the application services: effort rollups and in-memory indexes are only
+ * built for what the load itself writes or reads.
+ */
+@Component
+public class DataGenerator {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+    private static final int HISTORY_DAYS = 365;
+
+    private static final int EFFORT_RECORD_ALLOCATION_SIZE = 50;
+
+    private static final String[] GENDERS = { "MALE", "FEMALE", "OTHER" };
+
+    private final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int tenants;
+
+    private final int orgsPerTenant;
+
+    private final int empsPerTenant;
+
+    private final int projectsPerTenant;
+
+    private final int membersPerProject;
+
+    private final int batchSize;
+
+    private final SplittableRandom random;
+
+    public DataGenerator(
+        JdbcTemplate jdbcTemplate,
+        @Value("${loadtest.data.tenants:10}") int tenants,
+        @Value("${loadtest.data.orgs-per-tenant:50}") int orgsPerTenant,
+        @Value("${loadtest.data.emps-per-tenant:2000}") int empsPerTenant,
+        @Value("${loadtest.data.projects-per-tenant:200}") int projectsPerTenant,
+        @Value("${loadtest.data.members-per-project:8}") int membersPerProject,
+        @Value("${loadtest.data.batch-size:5000}") int batchSize,
+        @Value("${loadtest.data.seed:42}") long seed
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenants = tenants;
+        this.orgsPerTenant = orgsPerTenant;
+        this.empsPerTenant = empsPerTenant;
+        this.projectsPerTenant = projectsPerTenant;
+        this.membersPerProject = membersPerProject;
+        this.batchSize = batchSize;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Generate everything but the effortRecords.
+     *
+     * @return the shape of the generated data.
+     */
+    public Dataset generate() {
+        Dataset dataset = new Dataset(tenants, orgsPerTenant, empsPerTenant, projectsPerTenant, membersPerProject);
+        Timestamp createdAt = Timestamp.from(NOW);
+        long start = System.nanoTime();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int tenant = 1; tenant <= tenants; tenant++) {
+            rows.add(new Object[] { tenant, "Tenant " + tenant, createdAt });
+        }
+        insert("insert into tenant (id, name, created_at, uid) values (?, ?, ?, random_uuid())", rows);
+        restartIdentity("tenant", tenants);
+
+        for (int tenant = 1; tenant <= tenants; tenant++) {
+            for (int i = 0; i < orgsPerTenant; i++) {
+                // a tree of fan-out 5 under the first org of the tenant
+                Integer parentOrgId = i == 0 ? null : dataset.orgId(tenant, (i - 1) / 5);
+                rows.add(new Object[] { dataset.orgId(tenant, i), "Org " + i, tenant, parentOrgId, createdAt });
+            }
+        }
+        insert("insert into org (id, name, tenant_id, parent_org_id, created_at, uid) values (?, ?, ?, ?, ?, random_uuid())", rows);
+        restartIdentity("org", (long) tenants * orgsPerTenant);
+
+        for (int tenant = 1; tenant <= tenants; tenant++) {
+            for (int i = 0; i < empsPerTenant; i++) {
+                int empId = dataset.empId(tenant, i);
+                rows.add(
+                    new Object[] {
+                        empId,
+                        "Emp " + empId,
+                        dataset.orgId(tenant, random.nextInt(orgsPerTenant)),
+                        "E" + empId,
+                        String.format("ID%016d", empId),
+                        GENDERS[random.nextInt(GENDERS.length)],
+                        tenant,
+                        createdAt,
+                    }
+                );
+            }
+        }
+        insert("insert into emp (id, name, org_id, num, id_num, gender, tenant_id, created_at, uid) values (?, ?, ?, ?, ?, ?, ?, ?, random_uuid())", rows);
+        restartIdentity("emp", (long) tenants * empsPerTenant);
+
+        long memberId = 0;
+        for (int tenant = 1; tenant <= tenants; tenant++) {
+            for (int i = 0; i < projectsPerTenant; i++) {
+                int projectId = dataset.projectId(tenant, i);
+                rows.add(
+                    new Object[] {
+                        projectId,
+                        "P" + projectId,
+                        "Project " + projectId,
+                        "1",
+                        dataset.empId(tenant, random.nextInt(empsPerTenant)),
+                        tenant,
+                        createdAt,
+                    }
+                );
+            }
+        }
+        insert("insert into project (id, num, name, status, mng_id, tenant_id, created_at, uid) values (?, ?, ?, ?, ?, ?, ?, random_uuid())", rows);
+        restartIdentity("project", (long) tenants * projectsPerTenant);
+
+        for (int tenant = 1; tenant <= tenants; tenant++) {
+            for (int i = 0; i < projectsPerTenant; i++) {
+                for (int m = 0; m < membersPerProject; m++) {
+                    Instant startAt = NOW.minus(random.nextInt(HISTORY_DAYS), ChronoUnit.DAYS);
+                    Instant endAt = startAt.plus(Duration.ofDays(30 + random.nextInt(300)));
+                    rows.add(
+                        new Object[] {
+                            ++memberId,
+                            Timestamp.from(startAt),
+                            Timestamp.from(endAt),
+                            "1",
+                            5 + random.nextInt(20),
+                            dataset.empId(tenant, random.nextInt(empsPerTenant)),
+                            dataset.projectId(tenant, i),
+                            tenant,
+                            createdAt,
+                        }
+                    );
+                }
+            }
+        }
+        insert(
+            "insert into project_member (id, start_at, end_at, status, estimate_invest_ratio, emp_id, project_id, tenant_id, created_at, uid) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, random_uuid())",
+            rows
+        );
+        restartIdentity("project_member", memberId);
+
+        log.info(
+            "Generated {} tenants, {} orgs, {} emps, {} projects and {} projectMembers in {} ms",
+            tenants,
+            (long) tenants * orgsPerTenant,
+            (long) tenants * empsPerTenant,
+            (long) tenants * projectsPerTenant,
+            memberId,
+            Duration.ofNanos(System.nanoTime() - start).toMillis()
+        );
+        return dataset;
+    }
+
+    /**
+     * Add effortRecords until the table holds the given number of generated rows.
+     * <p>
+     * Each effortRecord is booked by a random employee of a random tenant on one of the tenant's projects, on a
+     * random day of the last year. Ids start past the highest one in the table, since effortRecords created through
+     * the API by a previous load sit above the generated ones.
+     *
+     * @param dataset the generated data.
+     * @param count the number of generated effortRecords to reach.
+     */
+    public void growEffortRecords(Dataset dataset, long count) {
+        long from = dataset.getEffortRecords();
+        if (count <= from) {
+            return;
+        }
+        long start = System.nanoTime();
+        Timestamp createdAt = Timestamp.from(NOW);
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        long firstId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from effort_record", Long.class) + 1;
+        long lastId = firstId + count - from - 1;
+        for (long id = firstId; id <= lastId; id++) {
+            int tenant = 1 + random.nextInt(tenants);
+            rows.add(
+                new Object[] {
+                    id,
+                    (float) (1 + random.nextInt(16)) / 2,
+                    Timestamp.from(NOW.minus(random.nextInt(HISTORY_DAYS), ChronoUnit.DAYS)),
+                    dataset.projectId(tenant, random.nextInt(projectsPerTenant)),
+                    dataset.empId(tenant, random.nextInt(empsPerTenant)),
+                    tenant,
+                    createdAt,
+                }
+            );
+            if (rows.size() == batchSize) {
+                insertEffortRecords(rows);
+            }
+        }
+        insertEffortRecords(rows);
+        // the pooled optimizer hands out the block of ids below the value it reads, so leave a block of margin
+        jdbcTemplate.execute("alter sequence effort_record_sequence restart with " + (lastId + 1 + EFFORT_RECORD_ALLOCATION_SIZE));
+        dataset.setEffortRecords(count);
+        dataset.setMaxEffortRecordId(lastId);
+        log.info("Generated {} effortRecords in {} ms", count - from, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void insertEffortRecords(List<Object[]> rows) {
+        insert(
+            "insert into effort_record (id, effort, work_date, project_id, emp_id, tenant_id, created_at, uid) " +
+            "values (?, ?, ?, ?, ?, ?, ?, random_uuid())",
+            rows
+        );
+    }
+
+    /**
+     * Insert the rows by batches, then clear them.
+     */
+    private void insert(String sql, List<Object[]> rows) {
+        for (int i = 0; i < rows.size(); i += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(i, Math.min(i + batchSize, rows.size())));
+        }
+        rows.clear();
+    }
+
+    private void restartIdentity(String table, long lastId) {
+        jdbcTemplate.execute("alter table " + table + " alter column id restart with " + (lastId + 1));
+    }
+}
@@ -0,0 +1,98 @@
+package com.mark.projectmng.loadtest;
+
+/**
+ * Shape of the generated data: ids are dense and allocated tenant after tenant, so that the driver can pick
+ * existing rows of a tenant without reading them back.
+ */
+public class Dataset {
+
+    private final int tenants;
+
+    private final int orgsPerTenant;
+
+    private final int empsPerTenant;
+
+    private final int projectsPerTenant;
+
+    private final int membersPerProject;
+
+    private long effortRecords;
+
+    private long maxEffortRecordId;
+
+    public Dataset(int tenants, int orgsPerTenant, int empsPerTenant, int projectsPerTenant, int membersPerProject) {
+        this.tenants = tenants;
+        this.orgsPerTenant = orgsPerTenant;
+        this.empsPerTenant = empsPerTenant;
+        this.projectsPerTenant = projectsPerTenant;
+        this.membersPerProject = membersPerProject;
+    }
+
+    public int getTenants() {
+        return tenants;
+    }
+
+    public int getOrgsPerTenant() {
+        return orgsPerTenant;
+    }
+
+    public int getEmpsPerTenant() {
+        return empsPerTenant;
+    }
+
+    public int getProjectsPerTenant() {
+        return projectsPerTenant;
+    }
+
+    public int getMembersPerProject() {
+        return membersPerProject;
+    }
+
+    public long getEffortRecords() {
+        return effortRecords;
+    }
+
+    public void setEffortRecords(long effortRecords) {
+        this.effortRecords = effortRecords;
+    }
+
+    /**
+     * @return the highest generated effortRecord id: ids from 1 up to it are generated, or were created through
+     * the API by a previous load, apart from the few it deleted.
+     */
+    public long getMaxEffortRecordId() {
+        return maxEffortRecordId;
+    }
+
+    public void setMaxEffortRecordId(long maxEffortRecordId) {
+        this.maxEffortRecordId = maxEffortRecordId;
+    }
+
+    /**
+     * @param tenant the tenant, from 1.
+     * @param index the org of the tenant, from 0.
+     */
+    public int orgId(int tenant, int index) {
+        return (tenant - 1) * orgsPerTenant + index + 1;
+    }
+
+    /**
+     * @param tenant the tenant, from 1.
+     * @param index the employee of the tenant, from 0.
+     */
+    public int empId(int tenant, int index) {
+        return (tenant - 1) * empsPerTenant + index + 1;
+    }
+
+    /**
+     * @param tenant the tenant, from 1.
+     * @param index the project of the tenant, from 0.
+     */
+    public int projectId(int tenant, int index) {
+        return (tenant - 1) * projectsPerTenant + index + 1;
+    }
+
+    public long projectMembers() {
+        return (long) tenants * projectsPerTenant * membersPerProject;
+    }
+}
@@ -0,0 +1,268 @@
+package com.mark.projectmng.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Closed-loop load driver: a fixed number of workers each send one request at a time, picking the
+ * {@link Operation} of each at random according to its weight, for a warmup then a measured period.
+ * <p>
+ * Latency is the time from sending a request to reading its whole response, so it includes the client side.
+ * Rows created by the workload are deleted by it, so that the size of the tables stays about the same.
+ */
+@Component
+public class LoadDriver {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+    private final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    private final int threads;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final int pageSize;
+
+    public LoadDriver(
+        @Value("${loadtest.threads:16}") int threads,
+        @Value("${loadtest.warmup-seconds:15}") long warmupSeconds,
+        @Value("${loadtest.duration-seconds:60}") long durationSeconds,
+        @Value("${loadtest.page-size:50}") int pageSize
+    ) {
+        this.threads = threads;
+        this.warmup = Duration.ofSeconds(warmupSeconds);
+        this.duration = Duration.ofSeconds(durationSeconds);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Run the workload.
+     *
+     * @param scenario the name of the run, for the report.
+     * @param baseUri the URI of the application, ending with {@code /api/}.
+     * @param token the JWT to authenticate the requests with.
+     * @param dataset the generated data to pick rows from.
+     * @return the report of the measured period.
+     */
+    public LoadReport run(String scenario, URI baseUri, String token, Dataset dataset) throws InterruptedException {
+        Run run = new Run(baseUri, token, dataset);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            long seed = i;
+            workers.execute(() -> run.work(new SplittableRandom(seed)));
+        }
+
+        log.info("Scenario {}: warming up {} workers for {} s", scenario, threads, warmup.toSeconds());
+        Thread.sleep(warmup.toMillis());
+        run.reset();
+        long start = System.nanoTime();
+        log.info("Scenario {}: measuring for {} s", scenario, duration.toSeconds());
+        Thread.sleep(duration.toMillis());
+        LoadReport report = run.report(scenario, (System.nanoTime() - start) / 1e9);
+
+        run.stopped = true;
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        return report;
+    }
+
+    /**
+     * State shared by the workers of one run.
+     */
+    private final class Run {
+
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+        private final URI baseUri;
+
+        private final String token;
+
+        private final Dataset dataset;
+
+        private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+        private final Queue<Long> createdEffortRecordIds = new ConcurrentLinkedQueue<>();
+
+        private final Queue<Long> createdProjectMemberIds = new ConcurrentLinkedQueue<>();
+
+        private final Operation[] byPercent = new Operation[100];
+
+        private volatile boolean stopped;
+
+        Run(URI baseUri, String token, Dataset dataset) {
+            this.baseUri = baseUri;
+            this.token = token;
+            this.dataset = dataset;
+            int percent = 0;
+            for (Operation operation : Operation.values()) {
+                recorders.put(operation, new Recorder(3));
+                errors.put(operation, new LongAdder());
+                for (int i = 0; i < operation.getWeight(); i++) {
+                    byPercent[percent++] = operation;
+                }
+            }
+        }
+
+        void work(SplittableRandom random) {
+            while (!stopped) {
+                Operation operation = byPercent[random.nextInt(byPercent.length)];
+                int tenant = 1 + random.nextInt(dataset.getTenants());
+                HttpRequest request = request(operation, tenant, random);
+                if (request == null) {
+                    // nothing left to delete yet
+                    continue;
+                }
+                long start = System.nanoTime();
+                HttpResponse<String> response;
+                try {
+                    response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                } catch (IOException e) {
+                    errors.get(operation).increment();
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                recorders.get(operation).recordValue((System.nanoTime() - start) / 1000);
+                if (response.statusCode() >= 400) {
+                    errors.get(operation).increment();
+                } else if (operation == Operation.CREATE_EFFORT_RECORD) {
+                    createdId(response, createdEffortRecordIds);
+                } else if (operation == Operation.CREATE_PROJECT_MEMBER) {
+                    createdId(response, createdProjectMemberIds);
+                }
+            }
+        }
+
+        void reset() {
+            recorders.values().forEach(Recorder::getIntervalHistogram);
+            errors.values().forEach(LongAdder::reset);
+        }
+
+        LoadReport report(String scenario, double seconds) {
+            LoadReport report = new LoadReport(scenario, seconds);
+            recorders.forEach((operation, recorder) -> report.add(operation, recorder.getIntervalHistogram(), errors.get(operation).sum())
+            );
+            return report;
+        }
+
+        private HttpRequest request(Operation operation, int tenant, SplittableRandom random) {
+            int projectId = dataset.projectId(tenant, random.nextInt(dataset.getProjectsPerTenant()));
+            int empId = dataset.empId(tenant, random.nextInt(dataset.getEmpsPerTenant()));
+            Instant day = NOW.minus(random.nextInt(365), ChronoUnit.DAYS);
+            switch (operation) {
+                case LIST_EFFORT_RECORDS:
+                    return get("effort-records?tenantId=" + tenant + "&size=" + pageSize);
+                case GET_EFFORT_RECORD:
+                    return get("effort-records/" + (1 + random.nextLong(Math.max(1, dataset.getMaxEffortRecordId()))));
+                case CREATE_EFFORT_RECORD:
+                    return send(
+                        "POST",
+                        "effort-records",
+                        String.format(
+                            "{\"effort\":%d.5,\"workDate\":\"%s\",\"projectId\":%d,\"empId\":%d,\"tenantId\":%d}",
+                            random.nextInt(8),
+                            day,
+                            projectId,
+                            empId,
+                            tenant
+                        )
+                    );
+                case UPDATE_EFFORT_RECORD:
+                    {
+                        long id = 1 + random.nextLong(Math.max(1, dataset.getMaxEffortRecordId()));
+                        return send("PATCH", "effort-records/" + id, "{\"id\":" + id + ",\"notes\":\"load test " + suffix(random) + "\"}");
+                    }
+                case DELETE_EFFORT_RECORD:
+                    return delete("effort-records/", createdEffortRecordIds.poll());
+                case LIST_PROJECTS:
+                    return get("projects?tenantId=" + tenant);
+                case GET_PROJECT:
+                    return get("projects/" + projectId);
+                case UPDATE_PROJECT:
+                    return send("PATCH", "projects/" + projectId, "{\"id\":" + projectId + ",\"name\":\"Project " + suffix(random) + "\"}");
+                case LIST_PROJECT_MEMBERS:
+                    return get("project-members?tenantId=" + tenant + "&projectId=" + projectId);
+                case CREATE_PROJECT_MEMBER:
+                    return send(
+                        "POST",
+                        "project-members",
+                        String.format(
+                            "{\"startAt\":\"%s\",\"endAt\":\"%s\",\"status\":\"1\",\"estimateInvestRatio\":1,\"empId\":%d,\"projectId\":%d,\"tenantId\":%d}",
+                            day,
+                            day.plus(30, ChronoUnit.DAYS),
+                            empId,
+                            projectId,
+                            tenant
+                        )
+                    );
+                case DELETE_PROJECT_MEMBER:
+                    return delete("project-members/", createdProjectMemberIds.poll());
+                default:
+                    throw new IllegalStateException("Unexpected operation: " + operation);
+            }
+        }
+
+        private String suffix(SplittableRandom random) {
+            return Integer.toHexString(random.nextInt());
+        }
+
+        private HttpRequest get(String path) {
+            return builder(path).GET().build();
+        }
+
+        private HttpRequest delete(String path, Long id) {
+            return id == null ? null : builder(path + id).DELETE().build();
+        }
+
+        private HttpRequest send(String method, String path, String body) {
+            HttpRequest.Builder builder = builder(path).method(method, HttpRequest.BodyPublishers.ofString(body));
+            if ("PATCH".equals(method)) {
+                // the single-statement update, whose response has no body
+                return builder.header("Content-Type", "application/merge-patch+json").header("Prefer", "return=minimal").build();
+            }
+            return builder.header("Content-Type", "application/json").build();
+        }
+
+        private HttpRequest.Builder builder(String path) {
+            return HttpRequest
+                .newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json");
+        }
+
+        private void createdId(HttpResponse<String> response, Queue<Long> ids) {
+            response
+                .headers()
+                .firstValue("Location")
+                .ifPresent(location -> ids.add(Long.valueOf(location.substring(location.lastIndexOf('/') + 1))));
+        }
+    }
+}
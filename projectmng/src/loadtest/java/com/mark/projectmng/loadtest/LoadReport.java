@@ -0,0 +1,85 @@
+package com.mark.projectmng.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput and latency of one run of the workload, per operation and overall. Latencies are recorded in
+ * microseconds and reported in milliseconds.
+ */
+public class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String scenario;
+
+    private final double seconds;
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+    private final Histogram total = new Histogram(3);
+
+    public LoadReport(String scenario, double seconds) {
+        this.scenario = scenario;
+        this.seconds = seconds;
+    }
+
+    public void add(Operation operation, Histogram histogram, long errorCount) {
+        histograms.put(operation, histogram);
+        errors.put(operation, errorCount);
+        total.add(histogram);
+    }
+
+    public void print(PrintStream out) {
+        out.println();
+        out.printf("Scenario %s, %.1f s%n", scenario, seconds);
+        out.printf("%-24s %10s %10s %10s %10s %10s %10s %8s%n", "operation", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            long errorCount = errors.get(entry.getKey());
+            totalErrors += errorCount;
+            printLine(out, entry.getKey().name(), entry.getValue(), errorCount);
+        }
+        printLine(out, "TOTAL", total, totalErrors);
+    }
+
+    /**
+     * Write the full percentile distribution of each operation, in the HdrHistogram {@code .hgrm} format.
+     *
+     * @param directory the directory to write the files to.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            writeDistribution(directory.resolve(scenario + "-" + entry.getKey().name().toLowerCase() + ".hgrm"), entry.getValue());
+        }
+        writeDistribution(directory.resolve(scenario + "-total.hgrm"), total);
+    }
+
+    private void printLine(PrintStream out, String name, Histogram histogram, long errorCount) {
+        out.printf(
+            "%-24s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+            name,
+            histogram.getTotalCount(),
+            histogram.getTotalCount() / seconds,
+            histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+            histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+            histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+            histogram.getMaxValue() / MICROS_PER_MILLI,
+            errorCount
+        );
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.mark.projectmng.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Boots the whole application with the {@code loadtest} profile, on an in-memory H2 database and a random port,
+ * then runs the {@link LoadTestRunner} scenarios against it and shuts down.
+ */
+@SpringBootApplication(scanBasePackages = "com.mark.projectmng")
+@EntityScan("com.mark.projectmng.domain")
+@EnableJpaRepositories("com.mark.projectmng.repository")
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication app = new SpringApplication(LoadTestApplication.class);
+        app.setAdditionalProfiles("loadtest");
+        try (ConfigurableApplicationContext context = app.run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            context.getBean(LoadTestRunner.class).run(port);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mark.projectmng.loadtest;
+
+import com.mark.projectmng.security.AuthoritiesConstants;
+import com.mark.projectmng.web.rest.AuthenticateController;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the {@link LoginBurst} and the {@link MailBurst}, then the workload once per size of the effortRecord table, from
+ * {@code loadtest.effort-records}, growing the table between runs, so that throughput and latency can be
+ * compared as the table grows.
+ */
+@Component
+public class LoadTestRunner {
+
+    private final DataGenerator dataGenerator;
+
+    private final LoadDriver loadDriver;
+
+    private final LoginBurst loginBurst;
+
+    private final MailBurst mailBurst;
+
+    private final AuthenticateController authenticateController;
+
+    private final long[] effortRecordCounts;
+
+    private final Path reportDirectory;
+
+    public LoadTestRunner(
+        DataGenerator dataGenerator,
+        LoadDriver loadDriver,
+        LoginBurst loginBurst,
+        MailBurst mailBurst,
+        AuthenticateController authenticateController,
+        @Value("${loadtest.effort-records:100000,1000000}") long[] effortRecordCounts,
+        @Value("${loadtest.report-directory:target/loadtest}") Path reportDirectory
+    ) {
+        this.dataGenerator = dataGenerator;
+        this.loadDriver = loadDriver;
+        this.loginBurst = loginBurst;
+        this.mailBurst = mailBurst;
+        this.authenticateController = authenticateController;
+        this.effortRecordCounts = effortRecordCounts;
+        this.reportDirectory = reportDirectory;
+    }
+
+    public void run(int port) throws InterruptedException, IOException {
+        URI baseUri = URI.create("http://localhost:" + port + "/api/");
+        // tokens are signed by the application itself, so no user needs to exist
+        String token = authenticateController.createToken(
+            new UsernamePasswordAuthenticationToken(
+                "loadtest",
+                null,
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+            ),
+            false
+        );
+        Dataset dataset = dataGenerator.generate();
+        if (loginBurst.isEnabled()) {
+            loginBurst.prepare();
+            report(loginBurst.run(baseUri, token, dataset));
+        }
+        if (mailBurst.isEnabled()) {
+            report(mailBurst.run());
+        }
+        for (long effortRecordCount : effortRecordCounts) {
+            dataGenerator.growEffortRecords(dataset, effortRecordCount);
+            report(loadDriver.run("effort-records-" + effortRecordCount, baseUri, token, dataset));
+        }
+    }
+
+    private void report(LoadReport report) throws IOException {
+        report.print(System.out);
+        report.write(reportDirectory);
+    }
+}
@@ -0,0 +1,135 @@
+package com.mark.projectmng.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Login burst, as at the start of a shift: all the logins of {@code loadtest.login-burst.size} users are sent at
+ * once, while a probe keeps reading a project to see how the rest of the API fares meanwhile.
+ * <p>
+ * Logins rejected by the password hashing pool count as errors of {@link Operation#LOGIN}; the probe is
+ * reported as {@link Operation#GET_PROJECT}.
+ */
+@Component
+public class LoginBurst {
+
+    private static final String LOGIN = "loadtest";
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private final Logger log = LoggerFactory.getLogger(LoginBurst.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final int size;
+
+    public LoginBurst(
+        JdbcTemplate jdbcTemplate,
+        PasswordEncoder passwordEncoder,
+        @Value("${loadtest.login-burst.size:1000}") int size
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.size = size;
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Create the user logging in, once and for all.
+     */
+    public void prepare() {
+        jdbcTemplate.update("insert into jhi_authority (name) values ('ROLE_USER')");
+        jdbcTemplate.update(
+            "insert into jhi_user (login, password_hash, email, activated, lang_key, created_by, created_date, uid) " +
+            "values (?, ?, ?, true, 'en', 'system', ?, random_uuid())",
+            LOGIN,
+            passwordEncoder.encode(PASSWORD),
+            LOGIN + "@localhost",
+            Timestamp.from(Instant.now())
+        );
+        jdbcTemplate.update(
+            "insert into jhi_user_authority (user_id, authority_name) select id, 'ROLE_USER' from jhi_user where login = ?",
+            LOGIN
+        );
+    }
+
+    public LoadReport run(URI baseUri, String token, Dataset dataset) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        Recorder logins = new Recorder(3);
+        Recorder probes = new Recorder(3);
+        LongAdder loginErrors = new LongAdder();
+        LongAdder probeErrors = new LongAdder();
+        HttpRequest login = HttpRequest
+            .newBuilder(baseUri.resolve("authenticate"))
+            .timeout(Duration.ofMinutes(2))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + LOGIN + "\",\"password\":\"" + PASSWORD + "\"}"))
+            .build();
+        HttpRequest probe = HttpRequest
+            .newBuilder(baseUri.resolve("projects/" + dataset.projectId(1, 0)))
+            .timeout(Duration.ofMinutes(2))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+
+        log.info("Sending a burst of {} logins", size);
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> pending = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long sent = System.nanoTime();
+            pending.add(
+                client
+                    .sendAsync(login, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        logins.recordValue((System.nanoTime() - sent) / 1000);
+                        if (error != null || response.statusCode() != 200) {
+                            loginErrors.increment();
+                        }
+                    })
+            );
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+        while (!all.isDone()) {
+            long sent = System.nanoTime();
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                    probeErrors.increment();
+                }
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                probeErrors.increment();
+            }
+            probes.recordValue((System.nanoTime() - sent) / 1000);
+        }
+        all.exceptionally(error -> null).join();
+
+        LoadReport report = new LoadReport("login-burst-" + size, (System.nanoTime() - start) / 1e9);
+        report.add(Operation.LOGIN, logins.getIntervalHistogram(), loginErrors.sum());
+        report.add(Operation.GET_PROJECT, probes.getIntervalHistogram(), probeErrors.sum());
+        return report;
+    }
+}
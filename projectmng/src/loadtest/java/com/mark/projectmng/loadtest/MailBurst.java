@@ -0,0 +1,119 @@
+package com.mark.projectmng.loadtest;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.mark.projectmng.service.MailService;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mail burst, as a mass import or a wave of password resets: {@code loadtest.mail-burst.size} mails are queued
+ * at once through {@link MailService}, and delivered to a GreenMail SMTP server standing in for the real one.
+ * <p>
+ * The SMTP server only starts {@code loadtest.mail-burst.outage-seconds} after the burst, so that the first
+ * batches fail and go through the retries. Queueing is reported as {@link Operation#QUEUE_MAIL}, and the delay
+ * from queueing to receipt by the SMTP server as {@link Operation#DELIVER_MAIL}; mails not received within
+ * {@code loadtest.mail-burst.timeout-seconds} count as its errors.
+ */
+@Component
+public class MailBurst {
+
+    private static final String SUBJECT = "loadtest mail ";
+
+    private final Logger log = LoggerFactory.getLogger(MailBurst.class);
+
+    private final MailService mailService;
+
+    private final int size;
+
+    private final int threads;
+
+    private final int smtpPort;
+
+    private final Duration outage;
+
+    private final Duration timeout;
+
+    public MailBurst(
+        MailService mailService,
+        @Value("${loadtest.mail-burst.size:10000}") int size,
+        @Value("${loadtest.threads:16}") int threads,
+        @Value("${spring.mail.port:3025}") int smtpPort,
+        @Value("${loadtest.mail-burst.outage-seconds:5}") long outageSeconds,
+        @Value("${loadtest.mail-burst.timeout-seconds:300}") long timeoutSeconds
+    ) {
+        this.mailService = mailService;
+        this.size = size;
+        this.threads = threads;
+        this.smtpPort = smtpPort;
+        this.outage = Duration.ofSeconds(outageSeconds);
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        Recorder queued = new Recorder(3);
+        Recorder delivered = new Recorder(3);
+        long[] queuedAt = new long[size];
+
+        log.info("Queueing a burst of {} mails", size);
+        long start = System.nanoTime();
+        ExecutorService senders = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            senders.execute(() -> {
+                long sent = System.nanoTime();
+                queuedAt[index] = sent;
+                mailService.sendEmail("user" + index + "@localhost", SUBJECT + index, "<p>mail " + index + "</p>", false, true);
+                queued.recordValue((System.nanoTime() - sent) / 1000);
+            });
+        }
+        senders.shutdown();
+        senders.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        Thread.sleep(outage.toMillis());
+        GreenMail smtp = new GreenMail(new ServerSetup(smtpPort, "localhost", ServerSetup.PROTOCOL_SMTP));
+        smtp.start();
+        int received = 0;
+        try {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (received < size && System.nanoTime() < deadline) {
+                MimeMessage[] messages = smtp.getReceivedMessages();
+                long now = System.nanoTime();
+                // messages are kept in the order they were received, so only the new ones are looked at
+                for (; received < messages.length; received++) {
+                    delivered.recordValue((now - queuedAt[index(messages[received])]) / 1000);
+                }
+                Thread.sleep(10);
+            }
+        } finally {
+            smtp.stop();
+        }
+        log.info("Received {} of {} mails", received, size);
+
+        LoadReport report = new LoadReport("mail-burst-" + size, (System.nanoTime() - start) / 1e9);
+        report.add(Operation.QUEUE_MAIL, queued.getIntervalHistogram(), 0);
+        report.add(Operation.DELIVER_MAIL, delivered.getIntervalHistogram(), size - received);
+        return report;
+    }
+
+    private static int index(MimeMessage message) {
+        try {
+            return Integer.parseInt(message.getSubject().substring(SUBJECT.length()));
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mark.projectmng.loadtest;
+
+/**
+ * Operations of the mixed workload, with their share of the requests in percent. Operations of weight 0 are
+ * not part of the mix, and only run by their own scenario.
+ */
+public enum Operation {
+    LIST_EFFORT_RECORDS(20),
+    GET_EFFORT_RECORD(20),
+    CREATE_EFFORT_RECORD(10),
+    UPDATE_EFFORT_RECORD(5),
+    DELETE_EFFORT_RECORD(5),
+    LIST_PROJECTS(10),
+    GET_PROJECT(10),
+    UPDATE_PROJECT(3),
+    LIST_PROJECT_MEMBERS(10),
+    CREATE_PROJECT_MEMBER(4),
+    DELETE_PROJECT_MEMBER(3),
+    LOGIN(0),
+    QUEUE_MAIL(0),
+    DELIVER_MAIL(0);
+
+    private final int weight;
+
+    Operation(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
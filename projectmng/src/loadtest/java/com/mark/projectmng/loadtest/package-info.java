@@ -0,0 +1,4 @@
+/**
+ * End-to-end load test of the REST API on an embedded H2 database, run with the {@code loadtest} Maven profile.
+ */
+package com.mark.projectmng.loadtest;
@@ -0,0 +1,219 @@
+package com.mark.projectmng.aop.metrics;
+
+import com.mark.projectmng.service.EmailAlreadyUsedException;
+import com.mark.projectmng.service.InvalidPasswordException;
+import com.mark.projectmng.service.UsernameAlreadyUsedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.validation.ConstraintViolationException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Aspect timing every call to the REST resources and to the repositories.
+ * <p>
+ * Calls are recorded in the {@code projectmng.rest.calls} and {@code projectmng.repository.calls} timers,
+ * tagged with the entity, the operation (the method name), the outcome, and the tenant when tagging by tenant
+ * is enabled. The tenant is taken from a {@code tenantId} parameter or, failing that, from the
+ * {@code tenantId} property of an entity argument.
+ * <p>
+ * The outcome is the class of HTTP status the call results in ({@code SUCCESS}, {@code CLIENT_ERROR},
+ * {@code SERVER_ERROR}...): the one of the returned {@link ResponseEntity}, or the one an exception is
+ * translated to, so that the number of time series does not grow with the exceptions thrown.
+ */
+@Aspect
+public class MetricsAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.mark.projectmng.repository";
+
+    private static final String DOMAIN_PACKAGE = "com.mark.projectmng.domain";
+
+    private static final String TENANT_ID = "tenantId";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean tagTenant;
+
+    // by entity first, as repositories share the methods they inherit from Spring Data
+    private final ConcurrentMap<String, ConcurrentMap<Method, CallSite>> callSites = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, String> repositoryEntities = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MeterRegistry meterRegistry, boolean tagTenant) {
+        this.meterRegistry = meterRegistry;
+        this.tagTenant = tagTenant;
+    }
+
+    /**
+     * Pointcut that matches all REST endpoints.
+     */
+    @Pointcut("within(com.mark.projectmng.web.rest..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public void restPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all repository methods, inherited Spring Data ones included.
+     */
+    @Pointcut(
+        "execution(public * org.springframework.data.repository.Repository+.*(..)) || " +
+        "(within(com.mark.projectmng.repository..*) && execution(public * *(..)))"
+    )
+    public void repositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("restPointcut()")
+    public Object timeRest(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("projectmng.rest.calls", joinPoint, entityOfResource(joinPoint.getSignature().getDeclaringType()));
+    }
+
+    @Around("repositoryPointcut()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String entity = repositoryEntities.computeIfAbsent(joinPoint.getThis().getClass(), MetricsAspect::entityOfRepository);
+        if (entity == null) {
+            // a Spring Data repository of another package
+            return joinPoint.proceed();
+        }
+        return time("projectmng.repository.calls", joinPoint, entity);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint, String entity) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        CallSite callSite = callSites
+            .computeIfAbsent(entity, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(signature.getMethod(), method -> new CallSite(entity, signature));
+        Tags tags = Tags.of("entity", callSite.entity, "operation", callSite.operation);
+        if (tagTenant) {
+            tags = tags.and("tenantId", tenantOf(callSite, joinPoint.getArgs()));
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Outcome outcome = Outcome.SERVER_ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result instanceof ResponseEntity<?> response ? Outcome.forStatus(response.getStatusCode().value()) : Outcome.SUCCESS;
+            return result;
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name).tags(tags).tag("outcome", outcome.name()).register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return the outcome of the status an exception is answered with, as in {@code ExceptionTranslator}.
+     */
+    private static Outcome outcomeOf(Throwable e) {
+        if (e instanceof ErrorResponse errorResponse) {
+            return Outcome.forStatus(errorResponse.getStatusCode().value());
+        }
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        if (responseStatus != null) {
+            return Outcome.forStatus(responseStatus.code().value());
+        }
+        if (
+            e instanceof AccessDeniedException ||
+            e instanceof AuthenticationException ||
+            e instanceof ConstraintViolationException ||
+            e instanceof ConcurrencyFailureException ||
+            e instanceof HttpMessageConversionException ||
+            e instanceof InvalidPasswordException ||
+            e instanceof EmailAlreadyUsedException ||
+            e instanceof UsernameAlreadyUsedException
+        ) {
+            // the last two are answered 201 on purpose, but are still the client's error
+            return Outcome.CLIENT_ERROR;
+        }
+        return Outcome.SERVER_ERROR;
+    }
+
+    private static String tenantOf(CallSite callSite, Object[] args) {
+        if (callSite.tenantIdIndex >= 0) {
+            Object tenantId = args[callSite.tenantIdIndex];
+            return tenantId == null ? NONE : tenantId.toString();
+        }
+        for (Object arg : args) {
+            if (arg != null && arg.getClass().getName().startsWith(DOMAIN_PACKAGE)) {
+                BeanWrapper entity = PropertyAccessorFactory.forBeanPropertyAccess(arg);
+                if (entity.isReadableProperty(TENANT_ID)) {
+                    Object tenantId = entity.getPropertyValue(TENANT_ID);
+                    return tenantId == null ? NONE : tenantId.toString();
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private static String entityOfResource(Class<?> resource) {
+        return stripSuffix(resource.getSimpleName(), "Resource");
+    }
+
+    /**
+     * @return the entity of the repository interface implemented by the given proxy class, or {@code null} if it
+     * implements none of this application.
+     */
+    private static String entityOfRepository(Class<?> repository) {
+        if (repository.getName().startsWith(REPOSITORY_PACKAGE)) {
+            return stripSuffix(repository.getSimpleName(), "Repository");
+        }
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(repository)) {
+            if (type.getName().startsWith(REPOSITORY_PACKAGE)) {
+                return stripSuffix(type.getSimpleName(), "Repository");
+            }
+        }
+        return null;
+    }
+
+    private static String stripSuffix(String name, String suffix) {
+        return name.endsWith(suffix) ? name.substring(0, name.length() - suffix.length()) : name;
+    }
+
+    /**
+     * What is known of a method once and for all: its tags and where to find its tenant.
+     */
+    private static final class CallSite {
+
+        private final String entity;
+
+        private final String operation;
+
+        private final int tenantIdIndex;
+
+        CallSite(String entity, MethodSignature signature) {
+            this.entity = entity;
+            this.operation = signature.getName();
+            int index = -1;
+            String[] parameterNames = signature.getParameterNames();
+            if (parameterNames != null) {
+                for (int i = 0; i < parameterNames.length; i++) {
+                    if (TENANT_ID.equals(parameterNames[i])) {
+                        index = i;
+                    }
+                }
+            }
+            this.tenantIdIndex = index;
+        }
+    }
+}
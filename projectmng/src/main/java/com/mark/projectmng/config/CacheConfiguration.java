@@ -0,0 +1,123 @@
+package com.mark.projectmng.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.mark.projectmng.domain.Authority;
+import com.mark.projectmng.domain.EffortRecord;
+import com.mark.projectmng.domain.Emp;
+import com.mark.projectmng.domain.EmpPost;
+import com.mark.projectmng.domain.Org;
+import com.mark.projectmng.domain.OrgType;
+import com.mark.projectmng.domain.Project;
+import com.mark.projectmng.domain.ProjectMember;
+import com.mark.projectmng.domain.Tenant;
+import com.mark.projectmng.domain.User;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration of the Caffeine caches, used through JCache both by Spring's cache abstraction and as the
+ * Hibernate second-level cache.
+ * <p>
+ * Every cache gets {@code application.cache.max-entries} entries, living {@code application.cache.time-to-live-seconds}.
+ * The regions of the reference entities read on most requests are sized and timed separately, each with
+ * {@code application.cache.regions.<region>.max-entries} and {@code .time-to-live-seconds}, where region is
+ * {@code org}, {@code org-type}, {@code tenant} or {@code project}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private static final String PROPERTY_PREFIX = "application.cache.";
+
+    private final Environment env;
+
+    private final long defaultMaxEntries;
+
+    private final long defaultTimeToLiveSeconds;
+
+    public CacheConfiguration(Environment env) {
+        this.env = env;
+        this.defaultMaxEntries = env.getProperty(PROPERTY_PREFIX + "max-entries", Long.class, 100L);
+        this.defaultTimeToLiveSeconds = env.getProperty(PROPERTY_PREFIX + "time-to-live-seconds", Long.class, 3600L);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            // needed for the per-region hit and miss counts exposed by CacheStatisticsEndpoint
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, User.class.getName());
+            createCache(cm, Authority.class.getName());
+            createCache(cm, User.class.getName() + ".authorities");
+            createCache(cm, Org.class.getName(), "org", 10_000, 3600);
+            createCache(cm, OrgType.class.getName(), "org-type", 1_000, 86_400);
+            createCache(cm, Tenant.class.getName(), "tenant", 1_000, 86_400);
+            createCache(cm, Project.class.getName(), "project", 10_000, 3600);
+            createCache(cm, Emp.class.getName());
+            createCache(cm, EmpPost.class.getName());
+            createCache(cm, ProjectMember.class.getName());
+            createCache(cm, EffortRecord.class.getName());
+            // query results are only valid until one of their tables is updated, so they can expire sooner
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, "query-results", 10_000, 600);
+            // update timestamps must outlive every cached query result, so they never expire
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, "update-timestamps", 10_000, 0);
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, configuration(defaultMaxEntries, defaultTimeToLiveSeconds));
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, String region, long maxEntries, long timeToLiveSeconds) {
+        String regionPrefix = PROPERTY_PREFIX + "regions." + region + ".";
+        createCache(
+            cm,
+            cacheName,
+            configuration(
+                env.getProperty(regionPrefix + "max-entries", Long.class, maxEntries),
+                env.getProperty(regionPrefix + "time-to-live-seconds", Long.class, timeToLiveSeconds)
+            )
+        );
+    }
+
+    private static void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, configuration);
+        }
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(long maxEntries, long timeToLiveSeconds) {
+        CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(maxEntries));
+        if (timeToLiveSeconds > 0) {
+            caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(timeToLiveSeconds)));
+        }
+        caffeineConfiguration.setStatisticsEnabled(true);
+        return caffeineConfiguration;
+    }
+}
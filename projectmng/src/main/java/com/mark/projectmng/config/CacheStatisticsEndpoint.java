@@ -0,0 +1,99 @@
+package com.mark.projectmng.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the hit, miss and put counts of each Hibernate second-level cache region,
+ * under {@code /management/cacheregions}.
+ */
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheStatisticsEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * @return the statistics of every region, by region name.
+     */
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Statistics statistics = statistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.put(region, new RegionStatistics(regionStatistics));
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * @param region the name of the region.
+     * @return the statistics of this region, or {@code null} (404) if there is no such region.
+     */
+    @ReadOperation
+    public RegionStatistics region(@Selector String region) {
+        CacheRegionStatistics regionStatistics = statistics().getCacheRegionStatistics(region);
+        return regionStatistics == null ? null : new RegionStatistics(regionStatistics);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Counts of one region since startup, or since statistics were last cleared.
+     */
+    public static final class RegionStatistics {
+
+        private final long hitCount;
+
+        private final long missCount;
+
+        private final long putCount;
+
+        private final long elementCountInMemory;
+
+        RegionStatistics(CacheRegionStatistics statistics) {
+            this.hitCount = statistics.getHitCount();
+            this.missCount = statistics.getMissCount();
+            this.putCount = statistics.getPutCount();
+            this.elementCountInMemory = statistics.getElementCountInMemory();
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getPutCount() {
+            return putCount;
+        }
+
+        public long getElementCountInMemory() {
+            return elementCountInMemory;
+        }
+
+        public double getHitRatio() {
+            long lookups = hitCount + missCount;
+            return lookups == 0 ? 0 : (double) hitCount / lookups;
+        }
+    }
+}
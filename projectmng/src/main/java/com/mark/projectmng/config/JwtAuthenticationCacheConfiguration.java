@@ -0,0 +1,58 @@
+package com.mark.projectmng.config;
+
+import static com.mark.projectmng.security.SecurityUtils.AUTHORITIES_KEY;
+
+import com.mark.projectmng.security.jwt.CachingJwtDecoder;
+import com.mark.projectmng.security.jwt.CachingJwtGrantedAuthoritiesConverter;
+import com.mark.projectmng.security.jwt.JwtAuthenticationCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Caching of the JWT authentication: the {@link JwtDecoder} of the resource server is wrapped, and its
+ * {@link JwtAuthenticationConverter} is built with a caching authorities converter, so that each token is verified
+ * and its authorities parsed once, until it expires.
+ * <p>
+ * At most {@code application.security.jwt-cache.maximum-size} tokens (10000 by default) are cached.
+ */
+@Configuration
+public class JwtAuthenticationCacheConfiguration {
+
+    @Bean
+    public JwtAuthenticationCache jwtAuthenticationCache(@Value("${application.security.jwt-cache.maximum-size:10000}") long maximumSize) {
+        return new JwtAuthenticationCache(maximumSize);
+    }
+
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter(JwtAuthenticationCache jwtAuthenticationCache) {
+        // the authorities claim is written by AuthenticateController as space-separated authority names
+        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        grantedAuthoritiesConverter.setAuthorityPrefix("");
+        grantedAuthoritiesConverter.setAuthoritiesClaimName(AUTHORITIES_KEY);
+
+        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(
+            new CachingJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter, jwtAuthenticationCache)
+        );
+        return jwtAuthenticationConverter;
+    }
+
+    @Bean
+    public static BeanPostProcessor jwtAuthenticationCachePostProcessor(ObjectProvider<JwtAuthenticationCache> jwtAuthenticationCache) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JwtDecoder jwtDecoder && !(bean instanceof CachingJwtDecoder)) {
+                    return new CachingJwtDecoder(jwtDecoder, jwtAuthenticationCache.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.mark.projectmng.config;
+
+import com.mark.projectmng.aop.metrics.MetricsAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+/**
+ * Application metrics, on top of those of Spring Boot.
+ * <p>
+ * Hibernate statistics (query executions, entity loads, second-level cache requests...) are bound by Spring
+ * Boot as {@code hibernate.*} meters, statistics being enabled in {@link CacheConfiguration}; only the overall
+ * second-level cache hit ratio is added here. Everything is scraped by Prometheus from
+ * {@code /management/prometheus}.
+ */
+@Configuration
+@EnableAspectJAutoProxy
+public class MetricsConfiguration {
+
+    @Bean
+    public MetricsAspect metricsAspect(
+        MeterRegistry meterRegistry,
+        @Value("${application.metrics.tag-tenant:false}") boolean tagTenant
+    ) {
+        return new MetricsAspect(meterRegistry, tagTenant);
+    }
+
+    /**
+     * Cap the number of tenants the call timers are tagged with: each is a set of histograms, and calls of the
+     * tenants past the cap are no longer recorded.
+     */
+    @Bean
+    public MeterFilter tenantTagLimit(@Value("${application.metrics.max-tagged-tenants:20}") int maxTaggedTenants) {
+        return MeterFilter.maximumAllowableTags("projectmng.", "tenantId", maxTaggedTenants, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry ->
+            Gauge
+                .builder("hibernate.second.level.cache.hit.ratio", statistics, MetricsConfiguration::hitRatio)
+                .description("The ratio of second-level cache requests that were hits")
+                .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long requests = hits + statistics.getSecondLevelCacheMissCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mark.projectmng.config;
+
+import com.mark.projectmng.security.AdaptiveBCryptPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Replaces the fixed-strength {@link BCryptPasswordEncoder} of the security configuration with an
+ * {@link AdaptiveBCryptPasswordEncoder}, configured by:
+ * <ul>
+ *     <li>{@code application.password-hashing.strength}: the strength to use, 0 (the default) to calibrate it. Set it when
+ *     several nodes share the users, so that they all hash with the same strength;</li>
+ *     <li>{@code application.password-hashing.target-millis}: the time budget of a hash when calibrating, 250 ms
+ *     by default;</li>
+ *     <li>{@code application.password-hashing.min-strength} and {@code max-strength}: the bounds of calibration,
+ *     10 and 16 by default.</li>
+ * </ul>
+ */
+@Configuration
+public class PasswordEncoderConfiguration {
+
+    @Bean
+    public static BeanPostProcessor adaptivePasswordEncoderPostProcessor(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof BCryptPasswordEncoder) {
+                    return new AdaptiveBCryptPasswordEncoder(
+                        env.getProperty("application.password-hashing.strength", Integer.class, 0),
+                        env.getProperty("application.password-hashing.target-millis", Long.class, 250L),
+                        env.getProperty("application.password-hashing.min-strength", Integer.class, 10),
+                        env.getProperty("application.password-hashing.max-strength", Integer.class, 16),
+                        meterRegistry.getObject()
+                    );
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.mark.projectmng.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuration of a read replica, enabled by setting {@code application.datasource.replica.jdbc-url}.
+ * <p>
+ * The primary pool is still configured from {@code spring.datasource}; the replica pool takes its Hikari
+ * settings from {@code application.datasource.replica}. Transactions marked {@code readOnly} run on the replica,
+ * everything else on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaDataSourceConfiguration.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("application.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("Hikari-replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("replicaDataSource") HikariDataSource replicaDataSource
+    ) {
+        log.debug("Routing read-only transactions to replica {}", replicaDataSource.getJdbcUrl());
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
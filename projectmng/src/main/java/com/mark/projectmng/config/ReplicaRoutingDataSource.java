@@ -0,0 +1,31 @@
+package com.mark.projectmng.config;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DataSource} sending the connections of read-only transactions to a replica, and all others to the primary.
+ * <p>
+ * The route is decided when a connection is obtained, so this must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks for a
+ * connection before it has published whether the transaction is read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA,
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mark.projectmng.config;
+
+import com.mark.projectmng.statement.StatementInspectionInterceptor;
+import com.mark.projectmng.statement.StatementInspector;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Inspection of the SQL statements: the {@code dataSource} bean is wrapped in a datasource-proxy reporting each
+ * execution to the {@link StatementInspector}, and the statements of each {@code /api} request are counted.
+ * <p>
+ * Enabled by default, as its cost is a few counters per statement; set
+ * {@code application.statement-inspection.enabled} to {@code false} to disable it.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.statement-inspection", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatementInspectionConfiguration implements WebMvcConfigurer {
+
+    private final StatementInspector statementInspector;
+
+    public StatementInspectionConfiguration(
+        @Value("${application.statement-inspection.slow-query-threshold-ms:500}") long slowQueryThresholdMillis,
+        @Value("${application.statement-inspection.n-plus-one-threshold:10}") int nPlusOneThreshold,
+        @Value("${application.statement-inspection.max-statements-per-request:100}") int maxStatementsPerRequest
+    ) {
+        this.statementInspector = new StatementInspector(slowQueryThresholdMillis, nPlusOneThreshold, maxStatementsPerRequest);
+    }
+
+    @Bean
+    public StatementInspector statementInspector() {
+        return statementInspector;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementInspectionInterceptor(statementInspector)).addPathPatterns("/api/**");
+    }
+
+    /**
+     * Only the {@code dataSource} bean is wrapped: with a read replica, it is the routing proxy in front of both
+     * pools, so that each statement is seen once.
+     */
+    @Bean
+    public static BeanPostProcessor statementInspectionDataSourcePostProcessor(ObjectProvider<StatementInspector> statementInspector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(statementInspector.getObject()).build();
+                }
+                return bean;
+            }
+        };
+    }
+}
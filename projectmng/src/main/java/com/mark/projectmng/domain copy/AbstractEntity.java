@@ -0,0 +1,92 @@
+package com.mark.projectmng.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import java.io.Serializable;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * Base abstract class for entities, defining {@code equals} and {@code hashCode} on a key assigned by the application.
+ * <p>
+ * Database ids are only known once the entity is persisted, so they cannot be hashed by an instance that may be put
+ * in a hash-based collection before that. Each new entity gets instead a random {@code uid}, the first time it is
+ * asked for or when it is persisted, which is stored along the entity and never changes: two entities are equal when
+ * they are of the same class and have the same uid, and a transient entity keeps its hash code once persisted.
+ * <p>
+ * The uid is read-only in JSON, so that clients can neither choose nor clear it. An instance with an id but no uid,
+ * as deserialized from a PUT body or built as a reference to an existing row, is not given one: it is only equal to
+ * itself, and updates must copy the uid of the loaded row onto it before merging it.
+ */
+@MappedSuperclass
+public abstract class AbstractEntity<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "uid", nullable = false, unique = true, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private UUID uid;
+
+    public abstract T getId();
+
+    /**
+     * @return the uid, assigned on first call to a new entity, or {@code null} for an instance of an existing row
+     * that was not loaded with one.
+     */
+    public UUID getUid() {
+        if (uid == null && getId() == null) {
+            uid = newUid();
+        }
+        return uid;
+    }
+
+    public void setUid(UUID uid) {
+        this.uid = uid;
+    }
+
+    @PrePersist
+    protected void assignUid() {
+        if (uid == null) {
+            uid = newUid();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AbstractEntity<?> other) || effectiveClass(this) != effectiveClass(o)) {
+            return false;
+        }
+        UUID uid = getUid();
+        return uid != null && uid.equals(other.getUid());
+    }
+
+    @Override
+    public int hashCode() {
+        UUID uid = getUid();
+        // an instance without uid is only equal to itself
+        return uid != null ? uid.hashCode() : System.identityHashCode(this);
+    }
+
+    /**
+     * @return a random (version 4) UUID, drawn from {@link ThreadLocalRandom} rather than the shared
+     * {@code SecureRandom} of {@link UUID#randomUUID()}: uids only have to be unique, which the database enforces.
+     * Also used for rows inserted with native statements.
+     */
+    public static UUID newUid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static Class<?> effectiveClass(Object entity) {
+        // compare proxies by the class they stand for, without initializing them
+        return entity instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass() : entity.getClass();
+    }
+}
@@ -6,20 +6,29 @@ import java.io.Serializable;
 import java.time.Instant;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * A EffortRecord.
  */
 @Entity
-@Table(name = "effort_record")
+@Table(
+    name = "effort_record",
+    indexes = {
+        @Index(name = "idx_effort_record_tenant_work_date", columnList = "tenant_id, work_date, id"),
+        @Index(name = "idx_effort_record_tenant_emp_project_work_date", columnList = "tenant_id, emp_id, project_id, work_date"),
+    }
+)
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class EffortRecord implements Serializable {
+public class EffortRecord extends AbstractEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "effortRecordSequenceGenerator")
+    @SequenceGenerator(name = "effortRecordSequenceGenerator", sequenceName = "effort_record_sequence", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -204,23 +213,6 @@ public class EffortRecord implements Serializable {
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof EffortRecord)) {
-            return false;
-        }
-        return id != null && id.equals(((EffortRecord) o).id);
-    }
-
-    @Override
-    public int hashCode() {
-        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
-        return getClass().hashCode();
-    }
-
     // prettier-ignore
     @Override
     public String toString() {
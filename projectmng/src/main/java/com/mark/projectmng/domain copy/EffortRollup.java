@@ -0,0 +1,168 @@
+package com.mark.projectmng.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A EffortRollup: the total {@link EffortRecord#getEffort() effort} booked by one employee on one project
+ * on one day (UTC), maintained as effortRecords are written.
+ * <p>
+ * The project and employee are part of the unique key rows are upserted on, and so are never null: effortRecords
+ * without a project or an employee are rolled up under {@link #NONE}.
+ */
+@Entity
+@Table(
+    name = "effort_rollup",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "ux_effort_rollup_key", columnNames = { "tenant_id", "project_id", "emp_id", "work_day" }),
+    },
+    indexes = {
+        @Index(name = "idx_effort_rollup_tenant_project_work_day", columnList = "tenant_id, project_id, work_day"),
+        @Index(name = "idx_effort_rollup_tenant_emp_work_day", columnList = "tenant_id, emp_id, work_day"),
+    }
+)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class EffortRollup extends AbstractEntity<Long> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The project or employee id of effort booked without one.
+     */
+    public static final int NONE = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "tenant_id")
+    private Integer tenantId;
+
+    @NotNull
+    @Column(name = "project_id", nullable = false)
+    private Integer projectId;
+
+    @NotNull
+    @Column(name = "emp_id", nullable = false)
+    private Integer empId;
+
+    @NotNull
+    @Column(name = "work_day", nullable = false)
+    private LocalDate workDay;
+
+    @NotNull
+    @Column(name = "total_effort", nullable = false)
+    private Double totalEffort;
+
+    @NotNull
+    @Column(name = "record_count", nullable = false)
+    private Long recordCount;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public EffortRollup id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getTenantId() {
+        return this.tenantId;
+    }
+
+    public EffortRollup tenantId(Integer tenantId) {
+        this.setTenantId(tenantId);
+        return this;
+    }
+
+    public void setTenantId(Integer tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Integer getProjectId() {
+        return this.projectId;
+    }
+
+    public EffortRollup projectId(Integer projectId) {
+        this.setProjectId(projectId);
+        return this;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Integer getEmpId() {
+        return this.empId;
+    }
+
+    public EffortRollup empId(Integer empId) {
+        this.setEmpId(empId);
+        return this;
+    }
+
+    public void setEmpId(Integer empId) {
+        this.empId = empId;
+    }
+
+    public LocalDate getWorkDay() {
+        return this.workDay;
+    }
+
+    public EffortRollup workDay(LocalDate workDay) {
+        this.setWorkDay(workDay);
+        return this;
+    }
+
+    public void setWorkDay(LocalDate workDay) {
+        this.workDay = workDay;
+    }
+
+    public Double getTotalEffort() {
+        return this.totalEffort;
+    }
+
+    public EffortRollup totalEffort(Double totalEffort) {
+        this.setTotalEffort(totalEffort);
+        return this;
+    }
+
+    public void setTotalEffort(Double totalEffort) {
+        this.totalEffort = totalEffort;
+    }
+
+    public Long getRecordCount() {
+        return this.recordCount;
+    }
+
+    public EffortRollup recordCount(Long recordCount) {
+        this.setRecordCount(recordCount);
+        return this;
+    }
+
+    public void setRecordCount(Long recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EffortRollup{" +
+            "id=" + getId() +
+            ", tenantId=" + getTenantId() +
+            ", projectId=" + getProjectId() +
+            ", empId=" + getEmpId() +
+            ", workDay='" + getWorkDay() + "'" +
+            ", totalEffort=" + getTotalEffort() +
+            ", recordCount=" + getRecordCount() +
+            "}";
+    }
+}
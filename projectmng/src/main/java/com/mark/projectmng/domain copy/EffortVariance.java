@@ -0,0 +1,196 @@
+package com.mark.projectmng.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A EffortVariance: the effort planned for one employee on one project over one week (UTC, starting on Monday),
+ * from the {@link ProjectMember#getEstimateInvestRatio() investment ratio} of their assignments, against the
+ * {@link EffortRecord#getEffort() effort} they actually booked.
+ */
+@Entity
+@Table(
+    name = "effort_variance",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "ux_effort_variance_key", columnNames = { "tenant_id", "emp_id", "project_id", "week_start" }),
+    },
+    indexes = { @Index(name = "idx_effort_variance_tenant_week_start", columnList = "tenant_id, week_start") }
+)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class EffortVariance extends AbstractEntity<Long> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "effortVarianceSequenceGenerator")
+    @SequenceGenerator(name = "effortVarianceSequenceGenerator", sequenceName = "effort_variance_sequence", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "tenant_id", nullable = false)
+    private Integer tenantId;
+
+    @NotNull
+    @Column(name = "emp_id", nullable = false)
+    private Integer empId;
+
+    @NotNull
+    @Column(name = "project_id", nullable = false)
+    private Integer projectId;
+
+    @NotNull
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @NotNull
+    @Column(name = "planned_effort", nullable = false)
+    private Double plannedEffort;
+
+    @NotNull
+    @Column(name = "actual_effort", nullable = false)
+    private Double actualEffort;
+
+    @NotNull
+    @Column(name = "variance", nullable = false)
+    private Double variance;
+
+    @Column(name = "reconciled_at")
+    private Instant reconciledAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public EffortVariance id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getTenantId() {
+        return this.tenantId;
+    }
+
+    public EffortVariance tenantId(Integer tenantId) {
+        this.setTenantId(tenantId);
+        return this;
+    }
+
+    public void setTenantId(Integer tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Integer getEmpId() {
+        return this.empId;
+    }
+
+    public EffortVariance empId(Integer empId) {
+        this.setEmpId(empId);
+        return this;
+    }
+
+    public void setEmpId(Integer empId) {
+        this.empId = empId;
+    }
+
+    public Integer getProjectId() {
+        return this.projectId;
+    }
+
+    public EffortVariance projectId(Integer projectId) {
+        this.setProjectId(projectId);
+        return this;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public LocalDate getWeekStart() {
+        return this.weekStart;
+    }
+
+    public EffortVariance weekStart(LocalDate weekStart) {
+        this.setWeekStart(weekStart);
+        return this;
+    }
+
+    public void setWeekStart(LocalDate weekStart) {
+        this.weekStart = weekStart;
+    }
+
+    public Double getPlannedEffort() {
+        return this.plannedEffort;
+    }
+
+    public EffortVariance plannedEffort(Double plannedEffort) {
+        this.setPlannedEffort(plannedEffort);
+        return this;
+    }
+
+    public void setPlannedEffort(Double plannedEffort) {
+        this.plannedEffort = plannedEffort;
+    }
+
+    public Double getActualEffort() {
+        return this.actualEffort;
+    }
+
+    public EffortVariance actualEffort(Double actualEffort) {
+        this.setActualEffort(actualEffort);
+        return this;
+    }
+
+    public void setActualEffort(Double actualEffort) {
+        this.actualEffort = actualEffort;
+    }
+
+    public Double getVariance() {
+        return this.variance;
+    }
+
+    public EffortVariance variance(Double variance) {
+        this.setVariance(variance);
+        return this;
+    }
+
+    public void setVariance(Double variance) {
+        this.variance = variance;
+    }
+
+    public Instant getReconciledAt() {
+        return this.reconciledAt;
+    }
+
+    public EffortVariance reconciledAt(Instant reconciledAt) {
+        this.setReconciledAt(reconciledAt);
+        return this;
+    }
+
+    public void setReconciledAt(Instant reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EffortVariance{" +
+            "id=" + getId() +
+            ", tenantId=" + getTenantId() +
+            ", empId=" + getEmpId() +
+            ", projectId=" + getProjectId() +
+            ", weekStart='" + getWeekStart() + "'" +
+            ", plannedEffort=" + getPlannedEffort() +
+            ", actualEffort=" + getActualEffort() +
+            ", variance=" + getVariance() +
+            ", reconciledAt='" + getReconciledAt() + "'" +
+            "}";
+    }
+}
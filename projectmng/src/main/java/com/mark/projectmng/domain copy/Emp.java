@@ -15,7 +15,7 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Table(name = "emp")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class Emp implements Serializable {
+public class Emp extends AbstractEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -224,23 +224,6 @@ public class Emp implements Serializable {
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof Emp)) {
-            return false;
-        }
-        return id != null && id.equals(((Emp) o).id);
-    }
-
-    @Override
-    public int hashCode() {
-        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
-        return getClass().hashCode();
-    }
-
     // prettier-ignore
     @Override
     public String toString() {
@@ -16,7 +16,7 @@ import org.springframework.data.domain.Persistable;
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @JsonIgnoreProperties(value = { "new" })
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class EmpPost implements Serializable, Persistable<EmpPostId> {
+public class EmpPost extends AbstractEntity<EmpPostId> implements Serializable, Persistable<EmpPostId> {
 
     private static final long serialVersionUID = 1L;
 
@@ -43,6 +43,20 @@ public class EmpPost implements Serializable, Persistable<EmpPostId> {
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
+    @Override
+    public EmpPostId getId() {
+        return this.id;
+    }
+
+    public EmpPost id(EmpPostId id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(EmpPostId id) {
+        this.id = id;
+    }
+
     public Integer getTenantId() {
         return this.tenantId;
     }
@@ -127,23 +141,6 @@ public class EmpPost implements Serializable, Persistable<EmpPostId> {
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof EmpPost)) {
-            return false;
-        }
-        return id != null && id.equals(((EmpPost) o).id);
-    }
-
-    @Override
-    public int hashCode() {
-        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
-        return getClass().hashCode();
-    }
-
     // prettier-ignore
     @Override
     public String toString() {
@@ -0,0 +1,118 @@
+package com.mark.projectmng.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A JobLease: the node running a scheduled job until {@code leasedUntil}, so that it runs on one node only, and
+ * how far the job got, so that a run interrupted on one node can be resumed on another.
+ */
+@Entity
+@Table(name = "job_lease")
+public class JobLease implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 50)
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Size(max = 100)
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @NotNull
+    @Column(name = "leased_until", nullable = false)
+    private Instant leasedUntil;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId;
+
+    public String getName() {
+        return name;
+    }
+
+    public JobLease name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public JobLease owner(String owner) {
+        this.setOwner(owner);
+        return this;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLeasedUntil() {
+        return leasedUntil;
+    }
+
+    public JobLease leasedUntil(Instant leasedUntil) {
+        this.setLeasedUntil(leasedUntil);
+        return this;
+    }
+
+    public void setLeasedUntil(Instant leasedUntil) {
+        this.leasedUntil = leasedUntil;
+    }
+
+    public Long getLastProcessedId() {
+        return lastProcessedId;
+    }
+
+    public JobLease lastProcessedId(Long lastProcessedId) {
+        this.setLastProcessedId(lastProcessedId);
+        return this;
+    }
+
+    public void setLastProcessedId(Long lastProcessedId) {
+        this.lastProcessedId = lastProcessedId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobLease)) {
+            return false;
+        }
+        return Objects.equals(name, ((JobLease) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(name);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobLease{" +
+            "name='" + getName() + "'" +
+            ", owner='" + getOwner() + "'" +
+            ", leasedUntil='" + getLeasedUntil() + "'" +
+            ", lastProcessedId=" + getLastProcessedId() +
+            "}";
+    }
+}
@@ -14,7 +14,7 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Table(name = "org_type")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class OrgType implements Serializable {
+public class OrgType extends AbstractEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -138,23 +138,6 @@ public class OrgType implements Serializable {
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof OrgType)) {
-            return false;
-        }
-        return id != null && id.equals(((OrgType) o).id);
-    }
-
-    @Override
-    public int hashCode() {
-        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
-        return getClass().hashCode();
-    }
-
     // prettier-ignore
     @Override
     public String toString() {
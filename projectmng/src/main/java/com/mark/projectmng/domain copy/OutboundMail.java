@@ -0,0 +1,266 @@
+package com.mark.projectmng.domain;
+
+import com.mark.projectmng.domain.enumeration.MailStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A OutboundMail: a mail waiting to be sent, or sent, by the mail queue.
+ */
+@Entity
+@Table(
+    name = "outbound_mail",
+    indexes = {
+        @Index(name = "idx_outbound_mail_status_next_attempt_at", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbound_mail_status_claimed_at", columnList = "status, claimed_at"),
+    }
+)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class OutboundMail extends AbstractEntity<Long> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outboundMailSequenceGenerator")
+    @SequenceGenerator(name = "outboundMailSequenceGenerator", sequenceName = "outbound_mail_sequence", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 254)
+    @Column(name = "recipient", length = 254, nullable = false)
+    private String recipient;
+
+    @Size(max = 255)
+    @Column(name = "subject", length = 255)
+    private String subject;
+
+    @Lob
+    @Column(name = "content")
+    private String content;
+
+    @NotNull
+    @Column(name = "multipart", nullable = false)
+    private Boolean multipart;
+
+    @NotNull
+    @Column(name = "html", nullable = false)
+    private Boolean html;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 10, nullable = false)
+    private MailStatus status;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    @Size(max = 1000)
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public OutboundMail id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return this.recipient;
+    }
+
+    public OutboundMail recipient(String recipient) {
+        this.setRecipient(recipient);
+        return this;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return this.subject;
+    }
+
+    public OutboundMail subject(String subject) {
+        this.setSubject(subject);
+        return this;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return this.content;
+    }
+
+    public OutboundMail content(String content) {
+        this.setContent(content);
+        return this;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Boolean getMultipart() {
+        return this.multipart;
+    }
+
+    public OutboundMail multipart(Boolean multipart) {
+        this.setMultipart(multipart);
+        return this;
+    }
+
+    public void setMultipart(Boolean multipart) {
+        this.multipart = multipart;
+    }
+
+    public Boolean getHtml() {
+        return this.html;
+    }
+
+    public OutboundMail html(Boolean html) {
+        this.setHtml(html);
+        return this;
+    }
+
+    public void setHtml(Boolean html) {
+        this.html = html;
+    }
+
+    public MailStatus getStatus() {
+        return this.status;
+    }
+
+    public OutboundMail status(MailStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(MailStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public OutboundMail attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public OutboundMail nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getClaimedAt() {
+        return this.claimedAt;
+    }
+
+    public OutboundMail claimedAt(Instant claimedAt) {
+        this.setClaimedAt(claimedAt);
+        return this;
+    }
+
+    public void setClaimedAt(Instant claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public OutboundMail lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public OutboundMail createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getSentAt() {
+        return this.sentAt;
+    }
+
+    public OutboundMail sentAt(Instant sentAt) {
+        this.setSentAt(sentAt);
+        return this;
+    }
+
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboundMail{" +
+            "id=" + getId() +
+            ", recipient='" + getRecipient() + "'" +
+            ", subject='" + getSubject() + "'" +
+            ", multipart=" + getMultipart() +
+            ", html=" + getHtml() +
+            ", status='" + getStatus() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            ", claimedAt='" + getClaimedAt() + "'" +
+            ", lastError='" + getLastError() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", sentAt='" + getSentAt() + "'" +
+            "}";
+    }
+}
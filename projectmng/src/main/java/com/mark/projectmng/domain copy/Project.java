@@ -11,10 +11,15 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
  * A Project.
  */
 @Entity
-@Table(name = "project")
+@Table(
+    name = "project",
+    indexes = {
+        @Index(name = "idx_project_tenant_num", columnList = "tenant_id, num"),
+    }
+)
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class Project implements Serializable {
+public class Project extends AbstractEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -206,23 +211,6 @@ public class Project implements Serializable {
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof Project)) {
-            return false;
-        }
-        return id != null && id.equals(((Project) o).id);
-    }
-
-    @Override
-    public int hashCode() {
-        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
-        return getClass().hashCode();
-    }
-
     // prettier-ignore
     @Override
     public String toString() {
@@ -11,10 +11,16 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
  * A ProjectMember.
  */
 @Entity
-@Table(name = "project_member")
+@Table(
+    name = "project_member",
+    indexes = {
+        @Index(name = "idx_project_member_tenant_project_start_at", columnList = "tenant_id, project_id, start_at"),
+        @Index(name = "idx_project_member_tenant_emp_start_at", columnList = "tenant_id, emp_id, start_at"),
+    }
+)
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class ProjectMember implements Serializable {
+public class ProjectMember extends AbstractEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -218,23 +224,6 @@ public class ProjectMember implements Serializable {
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof ProjectMember)) {
-            return false;
-        }
-        return id != null && id.equals(((ProjectMember) o).id);
-    }
-
-    @Override
-    public int hashCode() {
-        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
-        return getClass().hashCode();
-    }
-
     // prettier-ignore
     @Override
     public String toString() {
@@ -0,0 +1,11 @@
+package com.mark.projectmng.domain.enumeration;
+
+/**
+ * The MailStatus enumeration: where an outbound mail is in its delivery.
+ */
+public enum MailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED,
+}
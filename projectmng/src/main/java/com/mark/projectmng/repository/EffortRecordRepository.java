@@ -1,12 +1,91 @@
 package com.mark.projectmng.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import com.mark.projectmng.domain.EffortRecord;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the EffortRecord entity.
+ * <p>
+ * The {@code findKeysetPage*} queries implement keyset (seek) pagination over the
+ * {@code (tenant_id, work_date, id)} index: each page starts right after the last row of the previous one,
+ * so no OFFSET is ever issued and every page costs the same. Callers should pass a {@link Pageable} of
+ * page {@code 0}, which is only used to bound the result size.
+ * <p>
+ * All finders are scoped by tenant so that they are served by the {@code (tenant_id, ...)} composite indexes.
+ * <p>
+ * {@link #streamAllForExport} and {@link #streamAllForReconciliation} must be consumed inside a transaction and
+ * closed afterwards. With MySQL the fetch size hint only streams when the connection URL sets {@code useCursorFetch=true}.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EffortRecordRepository extends JpaRepository<EffortRecord, Long> {}
+public interface EffortRecordRepository extends JpaRepository<EffortRecord, Long> {
+    int EXPORT_FETCH_SIZE = 1000;
+
+    Optional<EffortRecord> findOneByIdAndTenantId(Long id, Integer tenantId);
+
+    @Query(
+        "select effortRecord from EffortRecord effortRecord where effortRecord.tenantId = :tenantId " +
+        "order by effortRecord.workDate asc nulls first, effortRecord.id asc"
+    )
+    List<EffortRecord> findKeysetPage(@Param("tenantId") Integer tenantId, Pageable pageable);
+
+    @Query(
+        "select effortRecord from EffortRecord effortRecord where effortRecord.tenantId = :tenantId " +
+        "and ((effortRecord.workDate is null and effortRecord.id > :id) or effortRecord.workDate is not null) " +
+        "order by effortRecord.workDate asc nulls first, effortRecord.id asc"
+    )
+    List<EffortRecord> findKeysetPageAfterUndatedRecord(@Param("tenantId") Integer tenantId, @Param("id") Long id, Pageable pageable);
+
+    @Query(
+        "select effortRecord from EffortRecord effortRecord where effortRecord.tenantId = :tenantId " +
+        "and (effortRecord.workDate > :workDate or (effortRecord.workDate = :workDate and effortRecord.id > :id)) " +
+        "order by effortRecord.workDate asc nulls first, effortRecord.id asc"
+    )
+    List<EffortRecord> findKeysetPageAfter(
+        @Param("tenantId") Integer tenantId,
+        @Param("workDate") Instant workDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query(
+        "select effortRecord from EffortRecord effortRecord where effortRecord.tenantId = :tenantId " +
+        "and effortRecord.workDate >= :from and effortRecord.workDate < :to " +
+        "order by effortRecord.workDate asc, effortRecord.id asc"
+    )
+    Stream<EffortRecord> streamAllForExport(@Param("tenantId") Integer tenantId, @Param("from") Instant from, @Param("to") Instant to);
+
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query(
+        "select effortRecord from EffortRecord effortRecord where effortRecord.tenantId = :tenantId " +
+        "and effortRecord.empId is not null and effortRecord.projectId is not null " +
+        "and effortRecord.workDate >= :from and effortRecord.workDate < :to " +
+        "order by effortRecord.empId asc, effortRecord.projectId asc, effortRecord.workDate asc"
+    )
+    Stream<EffortRecord> streamAllForReconciliation(@Param("tenantId") Integer tenantId, @Param("from") Instant from, @Param("to") Instant to);
+}
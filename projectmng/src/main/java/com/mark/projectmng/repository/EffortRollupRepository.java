@@ -0,0 +1,75 @@
+package com.mark.projectmng.repository;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+import com.mark.projectmng.domain.EffortRollup;
+import com.mark.projectmng.service.dto.EffortTotalDTO;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the EffortRollup entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface EffortRollupRepository extends JpaRepository<EffortRollup, Long> {
+    /**
+     * @return the total effort of each day of the range on which a project has some, ordered by day.
+     */
+    @Query(
+        "select new com.mark.projectmng.service.dto.EffortTotalDTO(effortRollup.workDay, sum(effortRollup.totalEffort)) " +
+        "from EffortRollup effortRollup where effortRollup.tenantId = :tenantId and effortRollup.projectId = :projectId " +
+        "and effortRollup.workDay >= :from and effortRollup.workDay < :to " +
+        "group by effortRollup.workDay order by effortRollup.workDay"
+    )
+    List<EffortTotalDTO> findProjectDayTotals(
+        @Param("tenantId") Integer tenantId,
+        @Param("projectId") Integer projectId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    /**
+     * @return the total effort of each day of the range on which an employee has some, ordered by day.
+     */
+    @Query(
+        "select new com.mark.projectmng.service.dto.EffortTotalDTO(effortRollup.workDay, sum(effortRollup.totalEffort)) " +
+        "from EffortRollup effortRollup where effortRollup.tenantId = :tenantId and effortRollup.empId = :empId " +
+        "and effortRollup.workDay >= :from and effortRollup.workDay < :to " +
+        "group by effortRollup.workDay order by effortRollup.workDay"
+    )
+    List<EffortTotalDTO> findEmpDayTotals(
+        @Param("tenantId") Integer tenantId,
+        @Param("empId") Integer empId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    /**
+     * Add a delta to a rollup, creating it if it does not exist yet, in a single statement: concurrent writers of
+     * the same rollup are serialized by its unique key instead of racing to insert it.
+     * The uid is only used when the rollup is created.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "effort_rollup"))
+    @Query(
+        value = "insert into effort_rollup (uid, tenant_id, project_id, emp_id, work_day, total_effort, record_count) " +
+        "values (:uid, :tenantId, :projectId, :empId, :workDay, :effort, :count) " +
+        "on duplicate key update total_effort = total_effort + :effort, record_count = record_count + :count",
+        nativeQuery = true
+    )
+    int addToRollup(
+        @Param("uid") UUID uid,
+        @Param("tenantId") Integer tenantId,
+        @Param("projectId") int projectId,
+        @Param("empId") int empId,
+        @Param("workDay") LocalDate workDay,
+        @Param("effort") double effort,
+        @Param("count") long count
+    );
+}
@@ -0,0 +1,29 @@
+package com.mark.projectmng.repository;
+
+import com.mark.projectmng.domain.EffortVariance;
+import java.time.LocalDate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the EffortVariance entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface EffortVarianceRepository extends JpaRepository<EffortVariance, Long> {
+    Page<EffortVariance> findAllByTenantId(Integer tenantId, Pageable pageable);
+
+    Page<EffortVariance> findAllByTenantIdAndEmpId(Integer tenantId, Integer empId, Pageable pageable);
+
+    Page<EffortVariance> findAllByTenantIdAndProjectId(Integer tenantId, Integer projectId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "delete from EffortVariance effortVariance where effortVariance.tenantId = :tenantId " +
+        "and effortVariance.weekStart >= :from and effortVariance.weekStart < :to"
+    )
+    int deleteAllInWeeks(@Param("tenantId") Integer tenantId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
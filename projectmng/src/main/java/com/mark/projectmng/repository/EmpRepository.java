@@ -1,7 +1,11 @@
 package com.mark.projectmng.repository;
 
 import com.mark.projectmng.domain.Emp;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,13 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EmpRepository extends JpaRepository<Emp, Long> {}
+public interface EmpRepository extends JpaRepository<Emp, Long> {
+    List<Emp> findAllByTenantId(Integer tenantId);
+
+    /**
+     * Load an employee and lock its row until the end of the transaction, to serialize the writes made on its behalf.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select emp from Emp emp where emp.id = :id and emp.tenantId = :tenantId")
+    Optional<Emp> findOneByIdAndTenantIdForUpdate(@Param("id") Long id, @Param("tenantId") Integer tenantId);
+}
@@ -0,0 +1,44 @@
+package com.mark.projectmng.repository;
+
+import com.mark.projectmng.domain.JobLease;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link JobLease} entity.
+ * <p>
+ * Leases are only taken and renewed by conditional updates, so that two nodes cannot both hold one: the update
+ * count tells whether the lease is held.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    /**
+     * Take a lease which has expired, or renew it for its owner.
+     */
+    @Modifying
+    @Query(
+        "update JobLease jobLease set jobLease.owner = :owner, jobLease.leasedUntil = :until " +
+        "where jobLease.name = :name and (jobLease.owner = :owner or jobLease.leasedUntil < :now)"
+    )
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+
+    /**
+     * Record the progress of a job and renew its lease, if still held by the owner.
+     */
+    @Modifying
+    @Query(
+        "update JobLease jobLease set jobLease.leasedUntil = :until, jobLease.lastProcessedId = :lastProcessedId " +
+        "where jobLease.name = :name and jobLease.owner = :owner and jobLease.leasedUntil >= :now"
+    )
+    int checkpoint(
+        @Param("name") String name,
+        @Param("owner") String owner,
+        @Param("now") Instant now,
+        @Param("until") Instant until,
+        @Param("lastProcessedId") Long lastProcessedId
+    );
+}
@@ -1,6 +1,10 @@
 package com.mark.projectmng.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 import com.mark.projectmng.domain.Org;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +13,7 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrgRepository extends JpaRepository<Org, Long> {}
+public interface OrgRepository extends JpaRepository<Org, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Org> findAllByTenantId(Integer tenantId);
+}
@@ -1,6 +1,10 @@
 package com.mark.projectmng.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 import com.mark.projectmng.domain.OrgType;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +13,8 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrgTypeRepository extends JpaRepository<OrgType, Long> {}
+public interface OrgTypeRepository extends JpaRepository<OrgType, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<OrgType> findAll();
+}
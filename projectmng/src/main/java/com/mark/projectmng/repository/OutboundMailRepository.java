@@ -0,0 +1,56 @@
+package com.mark.projectmng.repository;
+
+import com.mark.projectmng.domain.OutboundMail;
+import com.mark.projectmng.domain.enumeration.MailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OutboundMail entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+    /**
+     * Lock the next mails due, skipping those locked by another transaction, so that several nodes can drain the
+     * queue at once without sending a mail twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query(
+        "select outboundMail from OutboundMail outboundMail " +
+        "where outboundMail.status = com.mark.projectmng.domain.enumeration.MailStatus.PENDING and outboundMail.nextAttemptAt <= :now " +
+        "order by outboundMail.nextAttemptAt"
+    )
+    List<OutboundMail> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    long countByStatus(MailStatus status);
+
+    @Query("select min(outboundMail.createdAt) from OutboundMail outboundMail where outboundMail.status = :status")
+    Optional<Instant> findOldestCreatedAt(@Param("status") MailStatus status);
+
+    /**
+     * Put back in the queue the mails claimed by a node that stopped before sending them.
+     */
+    @Modifying
+    @Query(
+        "update OutboundMail outboundMail set outboundMail.status = com.mark.projectmng.domain.enumeration.MailStatus.PENDING " +
+        "where outboundMail.status = com.mark.projectmng.domain.enumeration.MailStatus.SENDING and outboundMail.claimedAt < :claimedBefore"
+    )
+    int releaseStaleClaims(@Param("claimedBefore") Instant claimedBefore);
+
+    @Modifying
+    @Query(
+        "delete from OutboundMail outboundMail " +
+        "where outboundMail.status = com.mark.projectmng.domain.enumeration.MailStatus.SENT and outboundMail.sentAt < :sentBefore"
+    )
+    int deleteAllSentBefore(@Param("sentBefore") Instant sentBefore);
+}
@@ -0,0 +1,235 @@
+package com.mark.projectmng.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Repository applying PATCH-style partial updates to any entity.
+ * <p>
+ * {@link #updateNonNullAttributes} writes the non-null attributes of a patch with a single
+ * {@code UPDATE ... WHERE id = ? AND tenant_id = ?} built from the JPA metamodel, without loading the entity first.
+ * {@link #findAndCopyNonNullAttributes} loads the entity with that same condition and copies them onto it instead,
+ * for callers which answer with the updated entity.
+ * When the entity has a {@code tenantId}, the one of the patch scopes the update instead of being written, so
+ * PATCH cannot move a row to another tenant. Columns mapped with {@code updatable = false} are never written.
+ * Either way, each attribute written is validated on its own against the Bean Validation constraints of the entity
+ * beforehand: Hibernate does not validate bulk statements, and would only validate a loaded entity on flush.
+ * <p>
+ * As with any bulk statement, Hibernate evicts the second-level cache region of the entity once it has run,
+ * and entities of that type already in the persistence context are not refreshed.
+ */
+@Repository
+public class PartialUpdateRepository {
+
+    static final String TENANT_ATTRIBUTE = "tenantId";
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final ConcurrentMap<Class<?>, UpdatePlan> plans = new ConcurrentHashMap<>();
+
+    public PartialUpdateRepository(EntityManager entityManager, Validator validator) {
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    /**
+     * Update the non-null attributes of the given patch on the row with the given id.
+     *
+     * @param entityClass the type of the entity.
+     * @param id the id of the row to update.
+     * @param patch the attributes to write; its {@code tenantId}, if any, must match the row's.
+     * @param <T> the type of the entity.
+     * @return the number of rows updated, {@code 0} if no row has this id (in this tenant).
+     * @throws ConstraintViolationException if an attribute to write violates a constraint of the entity.
+     */
+    public <T> int updateNonNullAttributes(Class<T> entityClass, Object id, T patch) {
+        UpdatePlan plan = plan(entityClass);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityClass);
+        Root<T> root = update.from(entityClass);
+        validate(entityClass, plan, patch);
+        boolean hasValues = false;
+        for (Accessor accessor : plan.writable) {
+            Object value = accessor.get(patch);
+            if (value != null) {
+                update.set(root.get(accessor.name), value);
+                hasValues = true;
+            }
+        }
+        Object tenantId = plan.tenant == null ? null : plan.tenant.get(patch);
+        if (!hasValues) {
+            // nothing to write: only tell whether the row exists
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<T> countRoot = count.from(entityClass);
+            count.select(cb.count(countRoot)).where(matching(cb, countRoot, plan, id, tenantId));
+            return entityManager.createQuery(count).getSingleResult().intValue();
+        }
+        update.where(matching(cb, root, plan, id, tenantId));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Load the row with the given id and copy the non-null attributes of the given patch onto it; they are written
+     * when the transaction is flushed.
+     *
+     * @param entityClass the type of the entity.
+     * @param id the id of the row to update.
+     * @param patch the attributes to write; its {@code tenantId}, if any, must match the row's.
+     * @param <T> the type of the entity.
+     * @return the updated entity, or empty if no row has this id (in this tenant).
+     * @throws ConstraintViolationException if an attribute to write violates a constraint of the entity.
+     */
+    public <T> Optional<T> findAndCopyNonNullAttributes(Class<T> entityClass, Object id, T patch) {
+        UpdatePlan plan = plan(entityClass);
+        validate(entityClass, plan, patch);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Object tenantId = plan.tenant == null ? null : plan.tenant.get(patch);
+        query.select(root).where(matching(cb, root, plan, id, tenantId));
+        Optional<T> target = entityManager.createQuery(query).getResultStream().findFirst();
+        target.ifPresent(entity -> copy(plan, patch, entity));
+        return target;
+    }
+
+    /**
+     * Copy the non-null attributes of the given patch onto an entity, except for its id and tenant.
+     *
+     * @param entityClass the type of the entity.
+     * @param patch the attributes to copy.
+     * @param target the entity to copy them onto.
+     * @param <T> the type of the entity.
+     * @throws ConstraintViolationException if an attribute to copy violates a constraint of the entity.
+     */
+    public <T> void copyNonNullAttributes(Class<T> entityClass, T patch, T target) {
+        UpdatePlan plan = plan(entityClass);
+        validate(entityClass, plan, patch);
+        copy(plan, patch, target);
+    }
+
+    private <T> void validate(Class<T> entityClass, UpdatePlan plan, T patch) {
+        Set<ConstraintViolation<T>> violations = new HashSet<>();
+        for (Accessor accessor : plan.writable) {
+            Object value = accessor.get(patch);
+            if (value != null) {
+                violations.addAll(validator.validateValue(entityClass, accessor.name, value));
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static void copy(UpdatePlan plan, Object patch, Object target) {
+        for (Accessor accessor : plan.writable) {
+            Object value = accessor.get(patch);
+            if (value != null) {
+                accessor.set(target, value);
+            }
+        }
+    }
+
+    private static <T> Predicate matching(CriteriaBuilder cb, Root<T> root, UpdatePlan plan, Object id, Object tenantId) {
+        Predicate byId = cb.equal(root.get(plan.idName), id);
+        return tenantId == null ? byId : cb.and(byId, cb.equal(root.get(TENANT_ATTRIBUTE), tenantId));
+    }
+
+    private UpdatePlan plan(Class<?> entityClass) {
+        return plans.computeIfAbsent(entityClass, this::createPlan);
+    }
+
+    private UpdatePlan createPlan(Class<?> entityClass) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+        String idName = null;
+        Accessor tenant = null;
+        List<Accessor> writable = new ArrayList<>();
+        for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+            Accessor accessor = new Accessor(attribute.getName(), attribute.getJavaMember());
+            if (attribute.isId()) {
+                idName = attribute.getName();
+            } else if (TENANT_ATTRIBUTE.equals(attribute.getName())) {
+                tenant = accessor;
+            } else if (!attribute.isVersion() && !attribute.isAssociation() && accessor.isUpdatable()) {
+                writable.add(accessor);
+            }
+        }
+        if (idName == null) {
+            throw new IllegalArgumentException("No single id attribute on " + entityClass.getName());
+        }
+        return new UpdatePlan(idName, tenant, writable);
+    }
+
+    private static final class UpdatePlan {
+
+        private final String idName;
+
+        private final Accessor tenant;
+
+        private final List<Accessor> writable;
+
+        UpdatePlan(String idName, Accessor tenant, List<Accessor> writable) {
+            this.idName = idName;
+            this.tenant = tenant;
+            this.writable = writable;
+        }
+    }
+
+    private static final class Accessor {
+
+        private final String name;
+
+        private final Field field;
+
+        private final Method getter;
+
+        Accessor(String name, Member member) {
+            this.name = name;
+            if (member instanceof Field memberField) {
+                ReflectionUtils.makeAccessible(memberField);
+                this.field = memberField;
+                this.getter = null;
+            } else {
+                this.getter = (Method) member;
+                this.field = ReflectionUtils.findField(getter.getDeclaringClass(), name);
+                ReflectionUtils.makeAccessible(field);
+            }
+        }
+
+        boolean isUpdatable() {
+            Column column = field.getAnnotation(Column.class);
+            return column == null || column.updatable();
+        }
+
+        Object get(Object entity) {
+            return getter != null ? ReflectionUtils.invokeMethod(getter, entity) : ReflectionUtils.getField(field, entity);
+        }
+
+        void set(Object entity, Object value) {
+            ReflectionUtils.setField(field, entity, value);
+        }
+    }
+}
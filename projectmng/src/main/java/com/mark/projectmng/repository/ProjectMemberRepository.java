@@ -1,12 +1,67 @@
 package com.mark.projectmng.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import com.mark.projectmng.domain.ProjectMember;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the ProjectMember entity.
+ * <p>
+ * Finders are scoped by tenant so that they are served by the {@code (tenant_id, ...)} composite indexes.
+ * <p>
+ * {@link #streamAllForReconciliation} must be consumed inside a transaction and closed afterwards.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Long> {}
+public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Long> {
+    Optional<ProjectMember> findOneByIdAndTenantId(Long id, Integer tenantId);
+
+    List<ProjectMember> findAllByTenantId(Integer tenantId);
+
+    List<ProjectMember> findAllByTenantIdAndProjectIdOrderByStartAtAsc(Integer tenantId, Integer projectId);
+
+    List<ProjectMember> findAllByTenantIdAndEmpIdOrderByStartAtAsc(Integer tenantId, Integer empId);
+
+    /**
+     * Find the assignments of an employee overlapping a period, open sides being {@code null}, and lock them until
+     * the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "select projectMember from ProjectMember projectMember where projectMember.tenantId = :tenantId " +
+        "and projectMember.empId = :empId " +
+        "and (:to is null or projectMember.startAt is null or projectMember.startAt < :to) " +
+        "and (:from is null or projectMember.endAt is null or projectMember.endAt > :from)"
+    )
+    List<ProjectMember> findAllOverlappingForUpdate(
+        @Param("tenantId") Integer tenantId,
+        @Param("empId") Integer empId,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EffortRecordRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        }
+    )
+    @Query(
+        "select projectMember from ProjectMember projectMember where projectMember.tenantId = :tenantId " +
+        "and projectMember.empId is not null and projectMember.projectId is not null " +
+        "and (projectMember.startAt is null or projectMember.startAt < :to) " +
+        "and (projectMember.endAt is null or projectMember.endAt > :from) " +
+        "order by projectMember.empId asc, projectMember.projectId asc, projectMember.startAt asc"
+    )
+    Stream<ProjectMember> streamAllForReconciliation(@Param("tenantId") Integer tenantId, @Param("from") Instant from, @Param("to") Instant to);
+}
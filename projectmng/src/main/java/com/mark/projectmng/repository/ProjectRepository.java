@@ -1,12 +1,25 @@
 package com.mark.projectmng.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 import com.mark.projectmng.domain.Project;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the Project entity.
+ * <p>
+ * Finders are scoped by tenant so that they are served by the {@code (tenant_id, ...)} composite indexes; those listing
+ * projects go through the query cache.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {}
+public interface ProjectRepository extends JpaRepository<Project, Long> {
+    Optional<Project> findOneByIdAndTenantId(Long id, Integer tenantId);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Project> findAllByTenantId(Integer tenantId);
+}
@@ -1,6 +1,10 @@
 package com.mark.projectmng.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 import com.mark.projectmng.domain.Tenant;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +13,8 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface TenantRepository extends JpaRepository<Tenant, Long> {}
+public interface TenantRepository extends JpaRepository<Tenant, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Tenant> findAll();
+}
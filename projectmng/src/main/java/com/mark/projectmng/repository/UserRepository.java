@@ -1,13 +1,19 @@
 package com.mark.projectmng.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
 import com.mark.projectmng.domain.User;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,22 +21,56 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    String USERS_BY_LOGIN_CACHE = "usersByLogin";
-
-    String USERS_BY_EMAIL_CACHE = "usersByEmail";
     Optional<User> findOneByActivationKey(String activationKey);
-    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
+
+    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBeforeAndIdGreaterThanOrderByIdAsc(
+        Instant dateTime,
+        Long id,
+        Pageable pageable
+    );
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Not cached: use {@link com.mark.projectmng.service.UserLookupCache}.
+     */
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    /**
+     * Not cached: use {@link com.mark.projectmng.service.UserLookupCache}.
+     */
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    /**
+     * Delete the authorities of the not activated users created before a date, in a range of ids.
+     * <p>
+     * Like {@link #deleteNotActivated}, the table is declared as query space, so that Hibernate only evicts the
+     * second-level cache regions of that table, and not all of them as for any native update.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "jhi_user_authority"))
+    @Query(
+        value = "delete from jhi_user_authority where user_id in (" +
+        "select id from jhi_user where id > :after and id <= :upTo " +
+        "and activated = false and activation_key is not null and created_date < :before)",
+        nativeQuery = true
+    )
+    int deleteNotActivatedAuthorities(@Param("before") Instant before, @Param("after") long after, @Param("upTo") long upTo);
+
+    /**
+     * Delete the not activated users created before a date, in a range of ids.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "jhi_user"))
+    @Query(
+        value = "delete from jhi_user where id > :after and id <= :upTo " +
+        "and activated = false and activation_key is not null and created_date < :before",
+        nativeQuery = true
+    )
+    int deleteNotActivated(@Param("before") Instant before, @Param("after") long after, @Param("upTo") long upTo);
 }
@@ -0,0 +1,122 @@
+package com.mark.projectmng.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt {@link PasswordEncoder} whose strength (the log2 of the number of rounds) is calibrated at startup to
+ * the hardware: the highest strength whose hashing fits in a budget of milliseconds.
+ * <p>
+ * The strength is part of each BCrypt hash, so hashes of any strength are verified as they are, and
+ * {@link #upgradeEncoding} tells that a hash weaker than the calibrated strength should be rehashed, which Spring
+ * Security does on successful authentication. Hashes are never downgraded: nodes calibrated on different hardware
+ * would otherwise rehash each other's hashes back and forth. Set a fixed strength to have all nodes agree.
+ * <p>
+ * Verification and hashing times are recorded in the {@code password.verification} and
+ * {@code password.encoding} timers, tagged with the strength of the hash.
+ */
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_STRENGTH = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private final int strength;
+
+    private final BCryptPasswordEncoder delegate;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param strength the strength to use, or 0 to calibrate it.
+     * @param targetMillis the time budget of hashing a password, when calibrating.
+     * @param minStrength the lowest strength calibration can pick.
+     * @param maxStrength the highest strength calibration can pick.
+     * @param meterRegistry the registry of the timers.
+     */
+    public AdaptiveBCryptPasswordEncoder(int strength, long targetMillis, int minStrength, int maxStrength, MeterRegistry meterRegistry) {
+        this.strength = strength > 0 ? strength : calibrate(targetMillis, minStrength, maxStrength);
+        this.delegate = new BCryptPasswordEncoder(this.strength);
+        this.meterRegistry = meterRegistry;
+        Gauge
+            .builder("password.hashing.strength", this, AdaptiveBCryptPasswordEncoder::getStrength)
+            .description("The BCrypt strength new password hashes are made with")
+            .register(meterRegistry);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            sample.stop(meterRegistry.timer("password.encoding", "strength", String.valueOf(strength)));
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            int hashStrength = strengthOf(encodedPassword);
+            sample.stop(meterRegistry.timer("password.verification", "strength", hashStrength < 0 ? "unknown" : String.valueOf(hashStrength)));
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int hashStrength = strengthOf(encodedPassword);
+        return hashStrength >= 0 && hashStrength < strength;
+    }
+
+    /**
+     * @return the strength of a BCrypt hash, or -1 if it is not one.
+     */
+    static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_STRENGTH.matcher(encodedPassword);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Find the highest strength whose hashing takes no more than the target, each strength doubling the time of
+     * the previous one.
+     */
+    private int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // the first hashes run interpreted, so warm up on the cheapest strength first
+        for (int i = 0; i < 10; i++) {
+            new BCryptPasswordEncoder(4).encode(CALIBRATION_PASSWORD);
+        }
+        int calibrated = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode(CALIBRATION_PASSWORD);
+            long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            log.debug("BCrypt strength {} takes {} ms", candidate, millis);
+            if (millis > targetMillis) {
+                break;
+            }
+            calibrated = candidate;
+        }
+        log.info("Calibrated BCrypt strength to {} for a budget of {} ms", calibrated, targetMillis);
+        return calibrated;
+    }
+}
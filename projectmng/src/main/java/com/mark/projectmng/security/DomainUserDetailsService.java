@@ -0,0 +1,64 @@
+package com.mark.projectmng.security;
+
+import com.mark.projectmng.domain.Authority;
+import com.mark.projectmng.domain.User;
+import com.mark.projectmng.service.UserLookupCache;
+import java.util.List;
+import java.util.Locale;
+import org.hibernate.validator.internal.constraintvalidators.bv.EmailValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticate a user from the database.
+ * <p>
+ * Users are looked up through {@link UserLookupCache}, by email when the login is one, so that repeated
+ * authentications of the same user, and attempts with unknown logins, do not each query the database.
+ */
+@Component("userDetailsService")
+public class DomainUserDetailsService implements UserDetailsService {
+
+    private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
+
+    private final UserLookupCache userLookupCache;
+
+    public DomainUserDetailsService(UserLookupCache userLookupCache) {
+        this.userLookupCache = userLookupCache;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(final String login) {
+        log.debug("Authenticating {}", login);
+
+        if (new EmailValidator().isValid(login, null)) {
+            return userLookupCache
+                .findOneWithAuthoritiesByEmailIgnoreCase(login)
+                .map(user -> createSpringSecurityUser(login, user))
+                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+        }
+
+        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
+        return userLookupCache
+            .findOneWithAuthoritiesByLogin(lowercaseLogin)
+            .map(user -> createSpringSecurityUser(lowercaseLogin, user))
+            .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
+    }
+
+    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+        if (!user.isActivated()) {
+            throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
+        }
+        List<SimpleGrantedAuthority> grantedAuthorities = user
+            .getAuthorities()
+            .stream()
+            .map(Authority::getName)
+            .map(SimpleGrantedAuthority::new)
+            .toList();
+        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mark.projectmng.security.jwt;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} answering from a {@link JwtAuthenticationCache} the tokens it has already decoded.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final JwtAuthenticationCache cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, JwtAuthenticationCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return cache.decode(token, delegate);
+    }
+}
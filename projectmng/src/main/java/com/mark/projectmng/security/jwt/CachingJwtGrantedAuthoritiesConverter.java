@@ -0,0 +1,27 @@
+package com.mark.projectmng.security.jwt;
+
+import java.util.Collection;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Converter of a decoded token to its authorities, answering from a {@link JwtAuthenticationCache} the tokens it
+ * has already converted.
+ */
+public class CachingJwtGrantedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> delegate;
+
+    private final JwtAuthenticationCache cache;
+
+    public CachingJwtGrantedAuthoritiesConverter(Converter<Jwt, Collection<GrantedAuthority>> delegate, JwtAuthenticationCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        return cache.authorities(jwt, delegate);
+    }
+}
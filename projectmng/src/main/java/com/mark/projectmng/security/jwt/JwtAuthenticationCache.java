@@ -0,0 +1,110 @@
+package com.mark.projectmng.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Bounded caches of the tokens decoded by the application and of their authorities, so that a token is verified
+ * and its authorities claim parsed once, rather than on every request bearing it.
+ * <p>
+ * Decoded tokens are keyed by the SHA-256 hash of the token, so that the raw tokens are not kept in memory, and
+ * are evicted when they expire. Tokens that fail to decode, or that carry no expiry, are not cached. Authorities
+ * are keyed by the identity of the decoded token they come from, and go away with it.
+ * <p>
+ * Hits and misses of both caches are published as {@code cache.*} meters, with the {@code cache} tag set to
+ * {@code jwt} and {@code jwt-authorities}.
+ */
+public class JwtAuthenticationCache implements MeterBinder {
+
+    private final Cache<ByteBuffer, Jwt> jwts;
+
+    private final Cache<Jwt, Collection<GrantedAuthority>> authorities;
+
+    public JwtAuthenticationCache(long maximumSize) {
+        this.jwts = Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new UntilExpiresAt()).recordStats().build();
+        this.authorities = Caffeine.newBuilder().maximumSize(maximumSize).weakKeys().recordStats().build();
+    }
+
+    /**
+     * Decode a token, unless it was already decoded and has not expired since.
+     *
+     * @param token the token.
+     * @param decoder the decoder to decode it with on a miss.
+     * @return the decoded token.
+     * @throws org.springframework.security.oauth2.jwt.JwtException from the decoder.
+     */
+    public Jwt decode(String token, JwtDecoder decoder) {
+        ByteBuffer key = hash(token);
+        Jwt jwt = jwts.getIfPresent(key);
+        if (jwt == null) {
+            jwt = decoder.decode(token);
+            if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(Instant.now())) {
+                jwts.put(key, jwt);
+            }
+        }
+        return jwt;
+    }
+
+    /**
+     * Get the authorities of a decoded token, converting them on first access.
+     *
+     * @param jwt the decoded token.
+     * @param converter the converter of its claims to authorities.
+     * @return the authorities, unmodifiable.
+     */
+    public Collection<GrantedAuthority> authorities(Jwt jwt, Converter<Jwt, Collection<GrantedAuthority>> converter) {
+        return authorities.get(jwt, key -> List.copyOf(converter.convert(key)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, jwts, "jwt");
+        CaffeineCacheMetrics.monitor(registry, authorities, "jwt-authorities");
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required of every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expiry of a decoded token at its {@code exp} claim, whatever the accesses to it.
+     */
+    private static final class UntilExpiresAt implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
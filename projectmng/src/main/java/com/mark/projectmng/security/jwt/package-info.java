@@ -0,0 +1,4 @@
+/**
+ * Caching of decoded JWT and of their authorities.
+ */
+package com.mark.projectmng.security.jwt;
@@ -0,0 +1,190 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.ProjectMember;
+import com.mark.projectmng.repository.EmpRepository;
+import com.mark.projectmng.repository.ProjectMemberRepository;
+import com.mark.projectmng.service.dto.OverAllocationDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service detecting employees booked beyond capacity, that is whose overlapping assignments sum to an
+ * {@code estimateInvestRatio} above {@code application.capacity.max-invest-ratio} (100 by default).
+ * <p>
+ * Allocation over time is computed with a sweep line: the start and end of each assignment are sorted, and the
+ * running sum of ratios between two consecutive instants is the allocation over that span.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CapacityService {
+
+    private static final Comparator<OverAllocationDTO> BY_EMP_AND_START = Comparator
+        .comparing(OverAllocationDTO::getEmpId)
+        .thenComparing(OverAllocationDTO::getStartAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ProjectMemberRepository projectMemberRepository;
+
+    private final EmpRepository empRepository;
+
+    private final int maxInvestRatio;
+
+    public CapacityService(
+        ProjectMemberRepository projectMemberRepository,
+        EmpRepository empRepository,
+        @Value("${application.capacity.max-invest-ratio:100}") int maxInvestRatio
+    ) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.empRepository = empRepository;
+        this.maxInvestRatio = maxInvestRatio;
+    }
+
+    /**
+     * Get all the over-allocations of a tenant.
+     * <p>
+     * Each employee is swept independently, in parallel on the common fork/join pool.
+     *
+     * @param tenantId the tenant.
+     * @return the over-allocations, ordered by employee and start.
+     */
+    public List<OverAllocationDTO> getOverAllocations(Integer tenantId) {
+        Map<Integer, List<Period>> periodsByEmp = projectMemberRepository
+            .findAllByTenantId(tenantId)
+            .stream()
+            .filter(projectMember -> projectMember.getEmpId() != null)
+            .collect(Collectors.groupingBy(ProjectMember::getEmpId, Collectors.mapping(Period::of, Collectors.toList())));
+        return periodsByEmp
+            .entrySet()
+            .parallelStream()
+            .flatMap(emp -> sweep(emp.getKey(), emp.getValue(), Instant.MIN, Instant.MAX).stream())
+            .sorted(BY_EMP_AND_START)
+            .toList();
+    }
+
+    /**
+     * Check whether saving a projectMember would book its employee beyond capacity.
+     * <p>
+     * Only the assignments of the employee overlapping the projectMember are read, from the database, in the
+     * transaction that saves it. The employee row is locked first, then the assignments read: concurrent checks for
+     * the same employee wait for each other until commit, so that two of them cannot both accept an assignment that
+     * only fits without the other.
+     *
+     * @param projectMember the projectMember about to be created or updated.
+     * @return the first span of its period where its employee would be over-allocated, if any.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<OverAllocationDTO> findOverAllocation(ProjectMember projectMember) {
+        if (projectMember.getTenantId() == null || projectMember.getEmpId() == null) {
+            return Optional.empty();
+        }
+        Period candidate = Period.of(projectMember);
+        if (candidate.ratio <= 0) {
+            return Optional.empty();
+        }
+        empRepository.findOneByIdAndTenantIdForUpdate(projectMember.getEmpId().longValue(), projectMember.getTenantId());
+        List<Period> periods = new ArrayList<>();
+        periods.add(candidate);
+        for (ProjectMember assignment : projectMemberRepository.findAllOverlappingForUpdate(
+            projectMember.getTenantId(),
+            projectMember.getEmpId(),
+            projectMember.getStartAt(),
+            projectMember.getEndAt()
+        )) {
+            // the previous version of an updated projectMember is replaced by the candidate
+            if (!Objects.equals(assignment.getId(), projectMember.getId())) {
+                periods.add(Period.of(assignment));
+            }
+        }
+        return sweep(projectMember.getEmpId(), periods, candidate.start, candidate.end).stream().findFirst();
+    }
+
+    /**
+     * Find the spans of a window where the given periods sum to a ratio above capacity.
+     */
+    private List<OverAllocationDTO> sweep(Integer empId, List<Period> periods, Instant windowStart, Instant windowEnd) {
+        List<Event> events = new ArrayList<>(periods.size() * 2);
+        for (Period period : periods) {
+            if (period.ratio > 0 && period.start.isBefore(period.end)) {
+                events.add(new Event(period.start, period.ratio));
+                events.add(new Event(period.end, -period.ratio));
+            }
+        }
+        // ends are exclusive, so at equal instants they are applied before starts
+        events.sort(Comparator.comparing((Event event) -> event.at).thenComparingInt(event -> event.delta));
+
+        List<OverAllocationDTO> overAllocations = new ArrayList<>();
+        Instant runStart = null;
+        int runMax = 0;
+        int allocation = 0;
+        int i = 0;
+        while (i < events.size()) {
+            Instant spanStart = events.get(i).at;
+            while (i < events.size() && events.get(i).at.equals(spanStart)) {
+                allocation += events.get(i).delta;
+                i++;
+            }
+            // allocation holds until the next event, if any: the last event always brings it back to zero
+            Instant spanEnd = i < events.size() ? events.get(i).at : Instant.MAX;
+            boolean over = allocation > maxInvestRatio && spanStart.isBefore(windowEnd) && spanEnd.isAfter(windowStart);
+            if (over) {
+                if (runStart == null) {
+                    runStart = spanStart.isAfter(windowStart) ? spanStart : windowStart;
+                    runMax = allocation;
+                } else {
+                    runMax = Math.max(runMax, allocation);
+                }
+            } else if (runStart != null) {
+                overAllocations.add(overAllocation(empId, runStart, spanStart.isBefore(windowEnd) ? spanStart : windowEnd, runMax));
+                runStart = null;
+            }
+        }
+        return overAllocations;
+    }
+
+    private static OverAllocationDTO overAllocation(Integer empId, Instant start, Instant end, int maxRatio) {
+        return new OverAllocationDTO(empId, Instant.MIN.equals(start) ? null : start, Instant.MAX.equals(end) ? null : end, maxRatio);
+    }
+
+    /**
+     * Period and ratio of one assignment, open sides being {@link Instant#MIN} and {@link Instant#MAX}.
+     */
+    private static final class Period {
+
+        private final Instant start;
+
+        private final Instant end;
+
+        private final int ratio;
+
+        private Period(Instant start, Instant end, Integer ratio) {
+            this.start = start == null ? Instant.MIN : start;
+            this.end = end == null ? Instant.MAX : end;
+            this.ratio = ratio == null ? 0 : ratio;
+        }
+
+        static Period of(ProjectMember projectMember) {
+            return new Period(projectMember.getStartAt(), projectMember.getEndAt(), projectMember.getEstimateInvestRatio());
+        }
+    }
+
+    private static final class Event {
+
+        private final Instant at;
+
+        private final int delta;
+
+        Event(Instant at, int delta) {
+            this.at = at;
+            this.delta = delta;
+        }
+    }
+}
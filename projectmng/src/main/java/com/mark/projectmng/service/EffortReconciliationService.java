@@ -0,0 +1,371 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.EffortRecord;
+import com.mark.projectmng.domain.EffortVariance;
+import com.mark.projectmng.domain.JobLease;
+import com.mark.projectmng.domain.ProjectMember;
+import com.mark.projectmng.domain.Tenant;
+import com.mark.projectmng.repository.EffortRecordRepository;
+import com.mark.projectmng.repository.EffortVarianceRepository;
+import com.mark.projectmng.repository.ProjectMemberRepository;
+import com.mark.projectmng.repository.TenantRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service reconciling the effort planned for each employee on each project, week by week, against the effort
+ * they actually booked, into {@link EffortVariance} rows.
+ * <p>
+ * The planned effort of a week is the {@code estimateInvestRatio} of each assignment overlapping it, applied to
+ * {@code application.reconciliation.weekly-effort} (40 by default) prorated by the part of the week the
+ * assignment covers. The actual effort is the sum of the effortRecords of the week.
+ * <p>
+ * Both tables are streamed ordered by employee, project and date, and merge-joined on employee and project in a
+ * single pass: only the weeks of the current pair are held in memory, whatever the size of the tenant.
+ * <p>
+ * The scheduled reconciliation runs on a single node, holding the {@link JobLease} of the job, and reconciles each
+ * tenant in its own transaction, renewing the lease in it: a tenant failing to reconcile does not roll the others
+ * back, and locks are only held for the time of one tenant. Reconciliations asked for on demand hold the same lease,
+ * so that they never run along the scheduled one, and reconcile one week per transaction, over at most
+ * {@code application.reconciliation.max-weeks} (53 by default).
+ */
+@Service
+@Transactional
+public class EffortReconciliationService {
+
+    private static final double WEEK_SECONDS = Duration.ofDays(7).getSeconds();
+
+    private static final String JOB = "reconcileRecentWeeks";
+
+    private final Logger log = LoggerFactory.getLogger(EffortReconciliationService.class);
+
+    private final ProjectMemberRepository projectMemberRepository;
+
+    private final EffortRecordRepository effortRecordRepository;
+
+    private final EffortVarianceRepository effortVarianceRepository;
+
+    private final TenantRepository tenantRepository;
+
+    private final EntityManager entityManager;
+
+    private final JobLeaseService jobLeaseService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final double weeklyEffort;
+
+    private final int batchSize;
+
+    private final int scheduledWeeks;
+
+    private final int maxWeeks;
+
+    public EffortReconciliationService(
+        ProjectMemberRepository projectMemberRepository,
+        EffortRecordRepository effortRecordRepository,
+        EffortVarianceRepository effortVarianceRepository,
+        TenantRepository tenantRepository,
+        EntityManager entityManager,
+        JobLeaseService jobLeaseService,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.reconciliation.weekly-effort:40}") double weeklyEffort,
+        @Value("${application.reconciliation.batch-size:500}") int batchSize,
+        @Value("${application.reconciliation.scheduled-weeks:4}") int scheduledWeeks,
+        @Value("${application.reconciliation.max-weeks:53}") int maxWeeks
+    ) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.effortRecordRepository = effortRecordRepository;
+        this.effortVarianceRepository = effortVarianceRepository;
+        this.tenantRepository = tenantRepository;
+        this.entityManager = entityManager;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.weeklyEffort = weeklyEffort;
+        this.batchSize = batchSize;
+        this.scheduledWeeks = scheduledWeeks;
+        this.maxWeeks = maxWeeks;
+    }
+
+
+    /**
+     * Reconcile the last weeks of every tenant, the current week excluded.
+     * <p>
+     * This is scheduled to get fired every Monday at 03:00 by default.
+     */
+    @Scheduled(cron = "${application.reconciliation.cron:0 0 3 * * MON}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileRecentWeeks() {
+        if (jobLeaseService.acquire(JOB).isEmpty()) {
+            return;
+        }
+        LocalDate to = weekStart(LocalDate.now(ZoneOffset.UTC));
+        LocalDate from = to.minusWeeks(scheduledWeeks);
+        try {
+            for (Tenant tenant : tenantRepository.findAll()) {
+                Integer tenantId = tenant.getId().intValue();
+                try {
+                    Integer written = transactionTemplate.execute(status -> {
+                        if (!jobLeaseService.checkpoint(JOB, null)) {
+                            status.setRollbackOnly();
+                            return null;
+                        }
+                        return reconcile(tenantId, from, to);
+                    });
+                    if (written == null) {
+                        log.warn("Lost the lease of the reconciliation before tenant {}, stopping", tenantId);
+                        return;
+                    }
+                } catch (DataAccessException | PersistenceException e) {
+                    log.error("Could not reconcile the effort of tenant {}", tenantId, e);
+                }
+            }
+        } finally {
+            jobLeaseService.release(JOB);
+        }
+    }
+
+    /**
+     * Reconcile the weeks of a tenant overlapping a period, one week per transaction, holding the lease of the
+     * reconciliation.
+     *
+     * @param tenantId the tenant.
+     * @param from the first day to reconcile, widened to the start of its week.
+     * @param to the last day to reconcile, exclusive, widened to the start of the following week.
+     * @return the number of variances written, or empty if another reconciliation holds the lease, or took it
+     * over before the last week (the weeks before it are reconciled).
+     * @throws IllegalArgumentException if the period spans more than {@code application.reconciliation.max-weeks} weeks.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Integer> reconcileWeekByWeek(Integer tenantId, LocalDate from, LocalDate to) {
+        LocalDate endWeek = to.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        if (weekStart(from).plusWeeks(maxWeeks).isBefore(endWeek)) {
+            throw new IllegalArgumentException("Cannot reconcile more than " + maxWeeks + " weeks at once");
+        }
+        if (jobLeaseService.acquire(JOB).isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            int written = 0;
+            for (LocalDate week = weekStart(from); week.isBefore(endWeek); week = week.plusWeeks(1)) {
+                LocalDate weekStart = week;
+                Integer weekWritten = transactionTemplate.execute(status -> {
+                    if (!jobLeaseService.checkpoint(JOB, null)) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return reconcile(tenantId, weekStart, weekStart.plusWeeks(1));
+                });
+                if (weekWritten == null) {
+                    log.warn("Lost the lease of the reconciliation of tenant {} at week {}, stopping", tenantId, weekStart);
+                    return Optional.empty();
+                }
+                written += weekWritten;
+            }
+            return Optional.of(written);
+        } finally {
+            jobLeaseService.release(JOB);
+        }
+    }
+
+    /**
+     * Reconcile the weeks of a tenant overlapping a period, replacing their previous variances, in the current
+     * transaction and without taking the lease of the reconciliation.
+     *
+     * @param tenantId the tenant.
+     * @param from the first day to reconcile, widened to the start of its week.
+     * @param to the last day to reconcile, exclusive, widened to the start of the following week.
+     * @return the number of variances written.
+     */
+    public int reconcile(Integer tenantId, LocalDate from, LocalDate to) {
+        LocalDate firstWeek = weekStart(from);
+        LocalDate endWeek = to.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        Instant windowStart = firstWeek.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant windowEnd = endWeek.atStartOfDay(ZoneOffset.UTC).toInstant();
+        log.debug("Reconciling effort of tenant {} from {} to {}", tenantId, firstWeek, endWeek);
+
+        effortVarianceRepository.deleteAllInWeeks(tenantId, firstWeek, endWeek);
+        MergeJoin join = new MergeJoin(tenantId, windowStart, windowEnd, Instant.now());
+        try (
+            Stream<ProjectMember> projectMembers = projectMemberRepository.streamAllForReconciliation(tenantId, windowStart, windowEnd);
+            Stream<EffortRecord> effortRecords = effortRecordRepository.streamAllForReconciliation(tenantId, windowStart, windowEnd)
+        ) {
+            join.run(new Peeking<>(projectMembers.iterator()), new Peeking<>(effortRecords.iterator()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        log.debug("Reconciled effort of tenant {} into {} variances", tenantId, join.written);
+        return join.written;
+    }
+
+    private static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static LocalDate weekStart(Instant instant) {
+        return weekStart(LocalDate.ofInstant(instant, ZoneOffset.UTC));
+    }
+
+    private static int compare(Integer empId, Integer projectId, Integer otherEmpId, Integer otherProjectId) {
+        int byEmp = empId.compareTo(otherEmpId);
+        return byEmp != 0 ? byEmp : projectId.compareTo(otherProjectId);
+    }
+
+    private static boolean isPair(Integer empId, Integer projectId, Integer otherEmpId, Integer otherProjectId) {
+        return empId.equals(otherEmpId) && projectId.equals(otherProjectId);
+    }
+
+    /**
+     * One pass over the assignments and effortRecords of a tenant, both ordered by employee and project.
+     */
+    private final class MergeJoin {
+
+        private final Integer tenantId;
+
+        private final Instant windowStart;
+
+        private final Instant windowEnd;
+
+        private final Instant reconciledAt;
+
+        private int written;
+
+        MergeJoin(Integer tenantId, Instant windowStart, Instant windowEnd, Instant reconciledAt) {
+            this.tenantId = tenantId;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.reconciledAt = reconciledAt;
+        }
+
+        void run(Peeking<ProjectMember> projectMembers, Peeking<EffortRecord> effortRecords) {
+            while (projectMembers.hasNext() || effortRecords.hasNext()) {
+                // the next pair is the smaller of the heads of both sides
+                Integer empId;
+                Integer projectId;
+                if (projectMemberFirst(projectMembers, effortRecords)) {
+                    empId = projectMembers.peek().getEmpId();
+                    projectId = projectMembers.peek().getProjectId();
+                } else {
+                    empId = effortRecords.peek().getEmpId();
+                    projectId = effortRecords.peek().getProjectId();
+                }
+
+                Map<LocalDate, double[]> weeks = new TreeMap<>();
+                while (projectMembers.hasNext() && isPair(projectMembers.peek().getEmpId(), projectMembers.peek().getProjectId(), empId, projectId)) {
+                    addPlanned(weeks, projectMembers.next());
+                }
+                while (effortRecords.hasNext() && isPair(effortRecords.peek().getEmpId(), effortRecords.peek().getProjectId(), empId, projectId)) {
+                    EffortRecord effortRecord = effortRecords.next();
+                    weeks.computeIfAbsent(weekStart(effortRecord.getWorkDate()), week -> new double[2])[1] += effortRecord.getEffort();
+                    entityManager.detach(effortRecord);
+                }
+                weeks.forEach((week, effort) -> write(empId, projectId, week, effort[0], effort[1]));
+            }
+        }
+
+        private boolean projectMemberFirst(Peeking<ProjectMember> projectMembers, Peeking<EffortRecord> effortRecords) {
+            if (!effortRecords.hasNext()) {
+                return true;
+            }
+            if (!projectMembers.hasNext()) {
+                return false;
+            }
+            ProjectMember projectMember = projectMembers.peek();
+            EffortRecord effortRecord = effortRecords.peek();
+            return (
+                compare(projectMember.getEmpId(), projectMember.getProjectId(), effortRecord.getEmpId(), effortRecord.getProjectId()) <= 0
+            );
+        }
+
+        private void addPlanned(Map<LocalDate, double[]> weeks, ProjectMember projectMember) {
+            entityManager.detach(projectMember);
+            if (projectMember.getEstimateInvestRatio() == null) {
+                return;
+            }
+            Instant start = projectMember.getStartAt() == null || projectMember.getStartAt().isBefore(windowStart)
+                ? windowStart
+                : projectMember.getStartAt();
+            Instant end = projectMember.getEndAt() == null || projectMember.getEndAt().isAfter(windowEnd) ? windowEnd : projectMember.getEndAt();
+            double ratio = projectMember.getEstimateInvestRatio() / 100.0;
+            for (LocalDate week = weekStart(start); start.isBefore(end); week = week.plusWeeks(1)) {
+                Instant weekEnd = week.plusWeeks(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+                Instant spanEnd = weekEnd.isBefore(end) ? weekEnd : end;
+                double covered = Duration.between(start, spanEnd).getSeconds() / WEEK_SECONDS;
+                weeks.computeIfAbsent(week, key -> new double[2])[0] += ratio * weeklyEffort * covered;
+                start = spanEnd;
+            }
+        }
+
+        private void write(Integer empId, Integer projectId, LocalDate week, double planned, double actual) {
+            entityManager.persist(
+                new EffortVariance()
+                    .tenantId(tenantId)
+                    .empId(empId)
+                    .projectId(projectId)
+                    .weekStart(week)
+                    .plannedEffort(planned)
+                    .actualEffort(actual)
+                    .variance(actual - planned)
+                    .reconciledAt(reconciledAt)
+            );
+            if (++written % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     * Iterator allowing to look at its next element without consuming it.
+     */
+    private static final class Peeking<T> implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+
+        private T next;
+
+        Peeking(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        T peek() {
+            if (next == null) {
+                next = iterator.next();
+            }
+            return next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null || iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            T current = peek();
+            next = null;
+            return current;
+        }
+    }
+}
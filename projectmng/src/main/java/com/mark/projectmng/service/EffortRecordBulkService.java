@@ -0,0 +1,131 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.EffortRecord;
+import com.mark.projectmng.service.dto.BulkRowResultDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for ingesting {@link EffortRecord}s in bulk.
+ * <p>
+ * Valid rows are inserted in chunks of {@code batchSize}, each chunk in its own transaction and sent to the
+ * database as a single JDBC batch. This relies on {@link EffortRecord} ids coming from a pooled sequence:
+ * with identity columns Hibernate has to insert rows one at a time to read back their ids.
+ * A chunk that fails to be stored is rolled back as a whole and its rows are reported as failed, without
+ * affecting the other chunks. The rollups of each chunk are updated in the chunk's transaction.
+ */
+@Service
+public class EffortRecordBulkService {
+
+    private final Logger log = LoggerFactory.getLogger(EffortRecordBulkService.class);
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final EffortRollupService effortRollupService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public EffortRecordBulkService(
+        EntityManager entityManager,
+        Validator validator,
+        EffortRollupService effortRollupService,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.effort-record.bulk.batch-size:500}") int batchSize
+    ) {
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.effortRollupService = effortRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Validate and store the given effortRecords.
+     *
+     * @param effortRecords the effortRecords to create, none of which may have an id.
+     * @return the result of each row, in the order of the input.
+     */
+    public List<BulkRowResultDTO> createAll(List<EffortRecord> effortRecords) {
+        log.debug("Request to bulk save {} EffortRecords", effortRecords.size());
+        BulkRowResultDTO[] results = new BulkRowResultDTO[effortRecords.size()];
+        List<Integer> chunk = new ArrayList<>(batchSize);
+        for (int i = 0; i < effortRecords.size(); i++) {
+            EffortRecord effortRecord = effortRecords.get(i);
+            List<String> errors = validate(effortRecord);
+            if (!errors.isEmpty()) {
+                results[i] = BulkRowResultDTO.invalid(i, errors);
+                continue;
+            }
+            chunk.add(i);
+            if (chunk.size() == batchSize) {
+                insertChunk(effortRecords, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(effortRecords, chunk, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<String> validate(EffortRecord effortRecord) {
+        if (effortRecord == null) {
+            return List.of("effortRecord must not be null");
+        }
+        if (effortRecord.getId() != null) {
+            return List.of("id: a new effortRecord cannot already have an ID");
+        }
+        Set<ConstraintViolation<EffortRecord>> violations = validator.validate(effortRecord);
+        if (violations.isEmpty()) {
+            return List.of();
+        }
+        return violations.stream().map(violation -> violation.getPropertyPath() + ": " + violation.getMessage()).sorted().toList();
+    }
+
+    private void insertChunk(List<EffortRecord> effortRecords, List<Integer> chunk, BulkRowResultDTO[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                List<EffortRecord> persisted = new ArrayList<>(chunk.size());
+                for (Integer index : chunk) {
+                    EffortRecord effortRecord = effortRecords.get(index);
+                    entityManager.persist(effortRecord);
+                    persisted.add(effortRecord);
+                }
+                entityManager.flush();
+                effortRollupService.recordsCreated(persisted);
+                entityManager.clear();
+            });
+            for (Integer index : chunk) {
+                results[index] = BulkRowResultDTO.created(index, effortRecords.get(index).getId());
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            log.warn("Bulk insert of {} EffortRecords failed", chunk.size(), e);
+            for (Integer index : chunk) {
+                // ids may have been assigned before the rollback
+                effortRecords.get(index).setId(null);
+                results[index] = BulkRowResultDTO.failed(index, "the batch containing this row could not be stored");
+            }
+        }
+    }
+}
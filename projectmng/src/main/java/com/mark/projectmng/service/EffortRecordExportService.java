@@ -0,0 +1,165 @@
+package com.mark.projectmng.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mark.projectmng.domain.EffortRecord;
+import com.mark.projectmng.repository.EffortRecordRepository;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting {@link EffortRecord}s as NDJSON or CSV.
+ * <p>
+ * Rows are read through a database cursor and written one by one to the output, each entity being detached
+ * from the persistence context once written, so memory stays flat whatever the number of exported rows.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EffortRecordExportService {
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER =
+        "id,effort,workDate,notes,projectId,empId,tenantId,createdAt,createdBy,lastUpdatedAt,lastUpdateBy";
+
+    private final Logger log = LoggerFactory.getLogger(EffortRecordExportService.class);
+
+    private final EffortRecordRepository effortRecordRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectWriter ndjsonWriter;
+
+    public EffortRecordExportService(
+        EffortRecordRepository effortRecordRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper
+    ) {
+        this.effortRecordRepository = effortRecordRepository;
+        this.entityManager = entityManager;
+        this.ndjsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write all the effortRecords of a tenant with a work date in {@code [from, to)} to the given stream.
+     * <p>
+     * The stream is flushed but not closed.
+     *
+     * @param tenantId the tenant whose effortRecords to export.
+     * @param from the first work date to export, inclusive.
+     * @param to the last work date to export, exclusive.
+     * @param format the output format.
+     * @param out the stream to write to.
+     * @return the number of exported effortRecords.
+     * @throws IOException if the output could not be written.
+     */
+    public long export(Integer tenantId, Instant from, Instant to, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export EffortRecords of tenant {} from {} to {} as {}", tenantId, from, to, format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try (Stream<EffortRecord> rows = effortRecordRepository.streamAllForExport(tenantId, from, to)) {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                for (Iterator<EffortRecord> it = rows.iterator(); it.hasNext(); count++) {
+                    EffortRecord effortRecord = it.next();
+                    writeCsvRow(writer, effortRecord);
+                    entityManager.detach(effortRecord);
+                }
+            } else {
+                JsonGenerator generator = ndjsonWriter.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                for (Iterator<EffortRecord> it = rows.iterator(); it.hasNext(); count++) {
+                    EffortRecord effortRecord = it.next();
+                    ndjsonWriter.writeValue(generator, effortRecord);
+                    entityManager.detach(effortRecord);
+                }
+                if (count > 0) {
+                    generator.writeRaw('\n');
+                }
+                generator.close();
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} EffortRecords of tenant {}", count, tenantId);
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, EffortRecord effortRecord) throws IOException {
+        writer.write(csvValue(effortRecord.getId()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getEffort()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getWorkDate()));
+        writer.write(',');
+        writer.write(csvText(effortRecord.getNotes()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getProjectId()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getEmpId()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getTenantId()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getCreatedAt()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getCreatedBy()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getLastUpdatedAt()));
+        writer.write(',');
+        writer.write(csvValue(effortRecord.getLastUpdateBy()));
+        writer.write('\n');
+    }
+
+    private static String csvValue(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,245 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.AbstractEntity;
+import com.mark.projectmng.domain.EffortRecord;
+import com.mark.projectmng.domain.EffortRollup;
+import com.mark.projectmng.repository.EffortRollupRepository;
+import com.mark.projectmng.service.dto.EffortTotalDTO;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the effort totals per project and per employee.
+ * <p>
+ * Every write to an {@link EffortRecord} is turned into a delta on its {@link EffortRollup} row, one row per
+ * tenant, project, employee and day (UTC), upserted in the same transaction. The summary table can be rebuilt
+ * from effortRecords with {@code config/sql/mysql-effort-rollup-rebuild.sql}. Totals are answered from the summary
+ * table, with a range query summing the day rows of one project or employee, folded into periods here: they cost the
+ * number of days in the range rather than the number of effortRecords, and see every committed write, whatever
+ * node made it.
+ */
+@Service
+@Transactional
+public class EffortRollupService {
+
+    /**
+     * Size of the periods totals are grouped by.
+     */
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH;
+
+        LocalDate periodStart(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+    }
+
+    /**
+     * What a single effortRecord adds to the rollups, captured before the record is modified.
+     */
+    public static final class Contribution {
+
+        private final RollupKey key;
+
+        private final double effort;
+
+        private Contribution(RollupKey key, double effort) {
+            this.key = key;
+            this.effort = effort;
+        }
+
+        /**
+         * @param effortRecord the effortRecord.
+         * @return its contribution, or {@code null} if it is not counted in any rollup (no tenant, work date or effort).
+         */
+        public static Contribution of(EffortRecord effortRecord) {
+            if (effortRecord.getTenantId() == null || effortRecord.getWorkDate() == null || effortRecord.getEffort() == null) {
+                return null;
+            }
+            LocalDate workDay = LocalDate.ofInstant(effortRecord.getWorkDate(), ZoneOffset.UTC);
+            RollupKey key = new RollupKey(effortRecord.getTenantId(), effortRecord.getProjectId(), effortRecord.getEmpId(), workDay);
+            return new Contribution(key, effortRecord.getEffort());
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(EffortRollupService.class);
+
+    private final EffortRollupRepository effortRollupRepository;
+
+    public EffortRollupService(EffortRollupRepository effortRollupRepository) {
+        this.effortRollupRepository = effortRollupRepository;
+    }
+
+    public void recordCreated(EffortRecord effortRecord) {
+        apply(null, Contribution.of(effortRecord));
+    }
+
+    public void recordsCreated(Collection<EffortRecord> effortRecords) {
+        Map<RollupKey, Delta> deltas = new LinkedHashMap<>();
+        for (EffortRecord effortRecord : effortRecords) {
+            addDelta(deltas, Contribution.of(effortRecord), 1);
+        }
+        apply(deltas);
+    }
+
+    public void recordUpdated(Contribution previous, EffortRecord effortRecord) {
+        apply(previous, Contribution.of(effortRecord));
+    }
+
+    public void recordDeleted(EffortRecord effortRecord) {
+        apply(Contribution.of(effortRecord), null);
+    }
+
+    /**
+     * Get the totals of a project, one per period of the given granularity holding some effort.
+     *
+     * @param tenantId the tenant of the project.
+     * @param projectId the project.
+     * @param granularity the size of the periods.
+     * @param from the first day to count, inclusive.
+     * @param to the last day to count, exclusive.
+     * @return the totals, ordered by period.
+     */
+    @Transactional(readOnly = true)
+    public List<EffortTotalDTO> getProjectTotals(Integer tenantId, Integer projectId, Granularity granularity, LocalDate from, LocalDate to) {
+        return fold(effortRollupRepository.findProjectDayTotals(tenantId, projectId, from, to), granularity);
+    }
+
+    /**
+     * Get the totals of an employee, one per period of the given granularity holding some effort.
+     *
+     * @param tenantId the tenant of the employee.
+     * @param empId the employee.
+     * @param granularity the size of the periods.
+     * @param from the first day to count, inclusive.
+     * @param to the last day to count, exclusive.
+     * @return the totals, ordered by period.
+     */
+    @Transactional(readOnly = true)
+    public List<EffortTotalDTO> getEmpTotals(Integer tenantId, Integer empId, Granularity granularity, LocalDate from, LocalDate to) {
+        return fold(effortRollupRepository.findEmpDayTotals(tenantId, empId, from, to), granularity);
+    }
+
+    private List<EffortTotalDTO> fold(List<EffortTotalDTO> days, Granularity granularity) {
+        if (granularity == Granularity.DAY) {
+            return days;
+        }
+        List<EffortTotalDTO> totals = new ArrayList<>();
+        EffortTotalDTO current = null;
+        for (EffortTotalDTO day : days) {
+            LocalDate period = granularity.periodStart(day.getPeriodStart());
+            if (current == null || !period.equals(current.getPeriodStart())) {
+                current = new EffortTotalDTO(period, 0d);
+                totals.add(current);
+            }
+            current.setTotalEffort(current.getTotalEffort() + day.getTotalEffort());
+        }
+        return totals;
+    }
+
+    private void apply(Contribution removed, Contribution added) {
+        Map<RollupKey, Delta> deltas = new LinkedHashMap<>();
+        addDelta(deltas, removed, -1);
+        addDelta(deltas, added, 1);
+        apply(deltas);
+    }
+
+    private static void addDelta(Map<RollupKey, Delta> deltas, Contribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(contribution.key, key -> new Delta());
+        delta.effort += sign * contribution.effort;
+        delta.count += sign;
+    }
+
+    private void apply(Map<RollupKey, Delta> deltas) {
+        deltas.values().removeIf(Delta::isEmpty);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.forEach((key, delta) ->
+            effortRollupRepository.addToRollup(
+                AbstractEntity.newUid(),
+                key.tenantId,
+                toRollupId(key.projectId),
+                toRollupId(key.empId),
+                key.workDay,
+                delta.effort,
+                delta.count
+            )
+        );
+    }
+
+    private static int toRollupId(Integer id) {
+        return id == null ? EffortRollup.NONE : id;
+    }
+
+    private static final class RollupKey {
+
+        private final Integer tenantId;
+
+        private final Integer projectId;
+
+        private final Integer empId;
+
+        private final LocalDate workDay;
+
+        RollupKey(Integer tenantId, Integer projectId, Integer empId, LocalDate workDay) {
+            this.tenantId = tenantId;
+            this.projectId = projectId;
+            this.empId = empId;
+            this.workDay = workDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return (
+                tenantId.equals(other.tenantId) &&
+                Objects.equals(projectId, other.projectId) &&
+                Objects.equals(empId, other.empId) &&
+                workDay.equals(other.workDay)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, projectId, empId, workDay);
+        }
+    }
+
+    private static final class Delta {
+
+        private double effort;
+
+        private long count;
+
+        boolean isEmpty() {
+            return effort == 0 && count == 0;
+        }
+    }
+}
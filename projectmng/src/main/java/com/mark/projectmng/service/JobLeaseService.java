@@ -0,0 +1,107 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.JobLease;
+import com.mark.projectmng.repository.JobLeaseRepository;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for {@link JobLease}s, letting a scheduled job run on one node of the cluster at a time.
+ * <p>
+ * A node takes the lease of a job for {@code application.job-lease.duration-seconds} (300 by default), and
+ * renews it at each {@link #checkpoint(String, Long) checkpoint} of the job, which also records its progress in
+ * the transaction of the job. A lease which is not renewed in time, because its node stopped, can be taken by
+ * another node, which resumes the job from its last checkpoint.
+ */
+@Service
+@Transactional
+public class JobLeaseService {
+
+    private final Logger log = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration duration;
+
+    // unique to this instance of the application, even with several per host
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+    public JobLeaseService(
+        JobLeaseRepository jobLeaseRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.job-lease.duration-seconds:300}") long durationSeconds
+    ) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.duration = Duration.ofSeconds(durationSeconds);
+    }
+
+    /**
+     * Take the lease of a job, unless another node holds it.
+     *
+     * @param name the job.
+     * @return the progress recorded by the last checkpoint of the job, if the lease was taken.
+     */
+    public Optional<JobLease> acquire(String name) {
+        createIfAbsent(name);
+        Instant now = Instant.now();
+        if (jobLeaseRepository.acquire(name, owner, now, now.plus(duration)) == 0) {
+            log.debug("Lease of job {} is held by another node", name);
+            return Optional.empty();
+        }
+        return jobLeaseRepository.findById(name);
+    }
+
+    /**
+     * Record the progress of a job and renew its lease, in the current transaction.
+     *
+     * @param name the job.
+     * @param lastProcessedId the progress of the job, or null when it is complete.
+     * @return false if the lease was lost, in which case the transaction should be rolled back.
+     */
+    public boolean checkpoint(String name, Long lastProcessedId) {
+        Instant now = Instant.now();
+        return jobLeaseRepository.checkpoint(name, owner, now, now.plus(duration), lastProcessedId) > 0;
+    }
+
+    /**
+     * Give the lease of a job up, so that any node may take it without waiting for it to expire.
+     *
+     * @param name the job.
+     */
+    public void release(String name) {
+        Instant now = Instant.now();
+        jobLeaseRepository
+            .findById(name)
+            .filter(jobLease -> owner.equals(jobLease.getOwner()) && jobLease.getLeasedUntil().isAfter(now))
+            .ifPresent(jobLease -> jobLease.setLeasedUntil(now));
+    }
+
+    private void createIfAbsent(String name) {
+        if (jobLeaseRepository.existsById(name)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jobLeaseRepository.saveAndFlush(new JobLease().name(name).leasedUntil(Instant.EPOCH))
+            );
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease of job {} was created by another node", name);
+        }
+    }
+}
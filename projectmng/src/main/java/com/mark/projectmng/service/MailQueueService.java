@@ -0,0 +1,300 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.OutboundMail;
+import com.mark.projectmng.domain.enumeration.MailStatus;
+import com.mark.projectmng.repository.OutboundMailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service queueing outbound mails in the {@link OutboundMail} table and sending them in batches.
+ * <p>
+ * Mails are queued in the transaction of the caller, so that they are only sent if it commits. The queue is
+ * polled every {@code application.mail-queue.poll-interval-ms} (1 s by default): due mails are claimed by
+ * batches of {@code batch-size} (50), skipping those locked by another node, and each batch is sent over a single
+ * SMTP connection by one of {@code workers} (2) threads. A failed mail is retried with an exponential backoff
+ * from {@code initial-backoff-seconds} (30) up to {@code max-backoff-seconds} (3600), and given up after
+ * {@code max-attempts} (5) attempts.
+ * <p>
+ * Published metrics are the depth of the queue and the age of its oldest mail, the delay from queueing to
+ * sending, and the outcome of each delivery attempt.
+ */
+@Service
+@Transactional
+public class MailQueueService implements MeterBinder {
+
+    private final Logger log = LoggerFactory.getLogger(MailQueueService.class);
+
+    private final OutboundMailRepository outboundMailRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final Duration claimTimeout;
+
+    private final Duration retention;
+
+    private final ExecutorService workers;
+
+    private final Semaphore idleWorkers;
+
+    public MailQueueService(
+        OutboundMailRepository outboundMailRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.mail-queue.batch-size:50}") int batchSize,
+        @Value("${application.mail-queue.workers:2}") int workers,
+        @Value("${application.mail-queue.max-attempts:5}") int maxAttempts,
+        @Value("${application.mail-queue.initial-backoff-seconds:30}") long initialBackoffSeconds,
+        @Value("${application.mail-queue.max-backoff-seconds:3600}") long maxBackoffSeconds,
+        @Value("${application.mail-queue.claim-timeout-seconds:600}") long claimTimeoutSeconds,
+        @Value("${application.mail-queue.retention-days:7}") long retentionDays
+    ) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+        this.workers = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("mail-queue-"));
+        this.idleWorkers = new Semaphore(workers);
+    }
+
+    /**
+     * Queue a mail, in the current transaction if any.
+     */
+    public OutboundMail enqueue(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        log.debug("Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}'", isMultipart, isHtml, to, subject);
+        Instant now = Instant.now();
+        return outboundMailRepository.save(
+            new OutboundMail()
+                .recipient(to)
+                .subject(subject)
+                .content(content)
+                .multipart(isMultipart)
+                .html(isHtml)
+                .status(MailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+        );
+    }
+
+    /**
+     * Hand the due mails over to the idle workers, a batch each.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-queue.poll-interval-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void drain() {
+        while (idleWorkers.tryAcquire()) {
+            List<OutboundMail> batch;
+            try {
+                batch = transactionTemplate.execute(status -> claim());
+            } catch (RuntimeException e) {
+                idleWorkers.release();
+                throw e;
+            }
+            if (batch == null || batch.isEmpty()) {
+                idleWorkers.release();
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    send(batch);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Put back in the queue the mails of nodes that stopped while sending them, and delete the old sent mails.
+     * <p>
+     * This is scheduled to get fired every 10 minutes by default.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-queue.housekeeping-interval-ms:600000}")
+    public void housekeeping() {
+        Instant now = Instant.now();
+        int released = outboundMailRepository.releaseStaleClaims(now.minus(claimTimeout));
+        if (released > 0) {
+            log.warn("Released {} mails claimed more than {} ago", released, claimTimeout);
+        }
+        int deleted = outboundMailRepository.deleteAllSentBefore(now.minus(retention));
+        log.debug("Deleted {} mails sent more than {} ago", deleted, retention);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge
+            .builder("mail.queue.depth", outboundMailRepository, repository -> repository.countByStatus(MailStatus.PENDING))
+            .description("The number of mails waiting to be sent")
+            .register(registry);
+        Gauge
+            .builder(
+                "mail.queue.oldest.age",
+                outboundMailRepository,
+                repository ->
+                    repository
+                        .findOldestCreatedAt(MailStatus.PENDING)
+                        .map(createdAt -> Duration.between(createdAt, Instant.now()).toMillis() / 1000.0)
+                        .orElse(0.0)
+            )
+            .description("The age of the oldest mail waiting to be sent")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private List<OutboundMail> claim() {
+        Instant now = Instant.now();
+        List<OutboundMail> batch = outboundMailRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        for (OutboundMail mail : batch) {
+            mail.setStatus(MailStatus.SENDING);
+            mail.setClaimedAt(now);
+        }
+        return batch;
+    }
+
+    /**
+     * Send a batch over one connection, then record the outcome of each of its mails.
+     */
+    private void send(List<OutboundMail> batch) {
+        Map<MimeMessage, OutboundMail> messages = new LinkedHashMap<>();
+        Map<Long, String> errors = new LinkedHashMap<>();
+        for (OutboundMail mail : batch) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                errors.put(mail.getId(), e.getMessage());
+            }
+        }
+        if (!messages.isEmpty()) {
+            try {
+                javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // the messages sent before the failure are not in the failed ones
+                e.getFailedMessages().forEach((message, cause) -> errors.put(messages.get(message).getId(), cause.getMessage()));
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(mail -> errors.put(mail.getId(), e.getMessage()));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(mail -> errors.put(mail.getId(), e.getMessage()));
+            }
+        }
+        log.debug("Sent {} mails, {} failed", batch.size() - errors.size(), errors.size());
+        transactionTemplate.executeWithoutResult(status -> record(batch, errors));
+    }
+
+    private void record(List<OutboundMail> batch, Map<Long, String> errors) {
+        Instant now = Instant.now();
+        List<Long> ids = new ArrayList<>(batch.size());
+        batch.forEach(mail -> ids.add(mail.getId()));
+        for (OutboundMail mail : outboundMailRepository.findAllById(ids)) {
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setClaimedAt(null);
+            String error = errors.get(mail.getId());
+            if (error == null) {
+                mail.setStatus(MailStatus.SENT);
+                mail.setSentAt(now);
+                mail.setLastError(null);
+                Timer.builder("mail.queue.latency").register(meterRegistry).record(Duration.between(mail.getCreatedAt(), now));
+                delivered("sent");
+            } else if (mail.getAttempts() >= maxAttempts) {
+                log.warn("Email could not be sent to '{}' after {} attempts: {}", mail.getRecipient(), mail.getAttempts(), error);
+                mail.setStatus(MailStatus.FAILED);
+                mail.setLastError(truncate(error));
+                delivered("failed");
+            } else {
+                mail.setStatus(MailStatus.PENDING);
+                mail.setNextAttemptAt(now.plus(backoff(mail.getAttempts())));
+                mail.setLastError(truncate(error));
+                delivered("retry");
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboundMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.getMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.getHtml());
+        return mimeMessage;
+    }
+
+    /**
+     * @return the delay before the next attempt, after the given number of failed ones.
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void delivered(String outcome) {
+        Counter.builder("mail.queue.deliveries").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+}
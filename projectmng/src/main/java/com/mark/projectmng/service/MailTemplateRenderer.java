@@ -0,0 +1,268 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the mail templates of users, and their subjects, from a cache per locale.
+ * <p>
+ * A template is precompiled by rendering it once with a marker in place of each attribute of the user: the
+ * output is split around the markers into literal parts, so that rendering comes down to appending the parts and
+ * the escaped attributes of the user to a buffer of the right size. The base URL and the messages of the locale
+ * end up in the literal parts. Each precompiled template is checked against a direct rendering of sample values
+ * holding characters to escape; a template where the attributes are not output as is, for example because they
+ * are used in a condition or transformed by an expression, keeps being rendered by Thymeleaf, as are the users
+ * lacking one of the attributes it outputs.
+ * <p>
+ * The templates of {@code application.mail-templates.names} are precompiled at startup for the locales of
+ * {@code application.mail-templates.locales}, other templates and locales on first use. Set
+ * {@code application.mail-templates.precompile} to false to render every mail directly, for example while
+ * editing the templates.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final boolean precompile;
+
+    private final String[] names;
+
+    private final String[] locales;
+
+    private final ConcurrentMap<Locale, ConcurrentMap<String, CompiledTemplate>> templates = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Locale, ConcurrentMap<String, String>> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        SpringTemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        @Value("${application.mail-templates.precompile:true}") boolean precompile,
+        @Value(
+            "${application.mail-templates.names:mail/activationEmail,mail/creationEmail,mail/passwordResetEmail}"
+        ) String[] names,
+        @Value("${application.mail-templates.locales:en}") String[] locales
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.jHipsterProperties = jHipsterProperties;
+        this.precompile = precompile;
+        this.names = names;
+        this.locales = locales;
+    }
+
+    /**
+     * Precompile the configured templates for the configured locales.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompileTemplates() {
+        if (!precompile) {
+            return;
+        }
+        for (String languageTag : locales) {
+            Locale locale = Locale.forLanguageTag(languageTag);
+            for (String name : names) {
+                template(name, locale);
+            }
+        }
+        log.debug("Precompiled {} mail templates for {} locales", names.length, locales.length);
+    }
+
+    /**
+     * Render a template for a user.
+     *
+     * @param templateName the template.
+     * @param user the user, available to the template as {@code user}.
+     * @param locale the locale of the messages of the template.
+     * @return the rendered template.
+     */
+    public String render(String templateName, User user, Locale locale) {
+        if (!precompile) {
+            return process(templateName, user, locale);
+        }
+        String rendered = template(templateName, locale).render(user);
+        return rendered != null ? rendered : process(templateName, user, locale);
+    }
+
+    /**
+     * Get a message, without arguments, for a locale.
+     *
+     * @param titleKey the key of the message.
+     * @param locale the locale.
+     * @return the message.
+     */
+    public String subject(String titleKey, Locale locale) {
+        if (!precompile) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects
+            .computeIfAbsent(locale, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(titleKey, key -> messageSource.getMessage(key, null, locale));
+    }
+
+    private CompiledTemplate template(String templateName, Locale locale) {
+        return templates
+            .computeIfAbsent(locale, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(templateName, key -> compile(key, locale));
+    }
+
+    private String process(String templateName, User user, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private CompiledTemplate compile(String templateName, Locale locale) {
+        String output = process(templateName, Attribute.user(Attribute::marker), locale);
+        List<String> parts = new ArrayList<>();
+        List<Attribute> attributes = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            // the next marker is the first one found after the previous
+            Attribute next = null;
+            int at = output.length();
+            for (Attribute attribute : Attribute.values()) {
+                int index = output.indexOf(attribute.marker, from);
+                if (index >= 0 && index < at) {
+                    next = attribute;
+                    at = index;
+                }
+            }
+            parts.add(output.substring(from, at));
+            if (next == null) {
+                break;
+            }
+            attributes.add(next);
+            from = at + next.marker.length();
+        }
+        CompiledTemplate compiled = new CompiledTemplate(parts.toArray(new String[0]), attributes.toArray(new Attribute[0]));
+
+        User sample = Attribute.user(Attribute::sample);
+        if (!process(templateName, sample, locale).equals(compiled.render(sample))) {
+            log.info("Mail template {} does not output the attributes of the user as is, it is not precompiled", templateName);
+            return CompiledTemplate.DIRECT;
+        }
+        log.debug("Precompiled mail template {} for locale {} into {} parts", templateName, locale, parts.size());
+        return compiled;
+    }
+
+    /**
+     * Attributes of the user a template may output.
+     */
+    private enum Attribute {
+        LOGIN(User::getLogin, User::setLogin),
+        FIRST_NAME(User::getFirstName, User::setFirstName),
+        LAST_NAME(User::getLastName, User::setLastName),
+        EMAIL(User::getEmail, User::setEmail),
+        IMAGE_URL(User::getImageUrl, User::setImageUrl),
+        ACTIVATION_KEY(User::getActivationKey, User::setActivationKey),
+        RESET_KEY(User::getResetKey, User::setResetKey);
+
+        private final Function<User, String> getter;
+
+        private final BiConsumer<User, String> setter;
+
+        // letters and digits only, so that escaping leaves them unchanged
+        private final String marker = "mailtemplateattribute" + ordinal() + "end";
+
+        Attribute(Function<User, String> getter, BiConsumer<User, String> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        String marker() {
+            return marker;
+        }
+
+        String sample() {
+            return "<" + name() + " & \"\u00e9'>";
+        }
+
+        static User user(Function<Attribute, String> values) {
+            User user = new User();
+            for (Attribute attribute : values()) {
+                attribute.setter.accept(user, values.apply(attribute));
+            }
+            return user;
+        }
+    }
+
+    /**
+     * Literal parts of a template, between which its attributes are output.
+     */
+    private static final class CompiledTemplate {
+
+        private static final CompiledTemplate DIRECT = new CompiledTemplate(null, null);
+
+        private final String[] parts;
+
+        private final Attribute[] attributes;
+
+        private final int length;
+
+        CompiledTemplate(String[] parts, Attribute[] attributes) {
+            this.parts = parts;
+            this.attributes = attributes;
+            int length = 0;
+            if (parts != null) {
+                for (String part : parts) {
+                    length += part.length();
+                }
+            }
+            this.length = length;
+        }
+
+        /**
+         * @return the rendered template, or null if it has to be rendered directly.
+         */
+        String render(User user) {
+            if (parts == null) {
+                return null;
+            }
+            int capacity = length;
+            for (Attribute attribute : attributes) {
+                String value = attribute.getter.apply(user);
+                if (value == null) {
+                    return null;
+                }
+                capacity += value.length();
+            }
+            // escaping may grow the values, but they seldom hold characters to escape
+            StringBuilder rendered = new StringBuilder(capacity);
+            rendered.append(parts[0]);
+            for (int i = 0; i < attributes.length; i++) {
+                rendered.append(HtmlEscape.escapeHtml4Xml(attributes[i].getter.apply(user))).append(parts[i + 1]);
+            }
+            return rendered.toString();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.Emp;
+import com.mark.projectmng.domain.Org;
+import com.mark.projectmng.repository.EmpRepository;
+import com.mark.projectmng.repository.OrgRepository;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service answering subtree queries on the org hierarchy from memory.
+ * <p>
+ * The orgs and employees of a tenant are loaded once, on first access. The hierarchy is then laid out in
+ * arrays in depth-first order, so that the descendants of an org are the contiguous range between its
+ * position and the end of its subtree, and the employees are grouped by org in that same order, so that the
+ * employees of a subtree are a contiguous range too. Both queries thus cost the size of their answer.
+ * <p>
+ * Writes to orgs and employees drop the loaded tenants they affect after commit, so that the next query
+ * loads them again from the database, with the writes of other nodes too. Laying a tenant out costs
+ * O(orgs + employees); the arrays are never patched in place. Loaded tenants are also dropped periodically,
+ * so that writes made by other nodes cannot leave them off for long.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrgTreeService {
+
+    private final Logger log = LoggerFactory.getLogger(OrgTreeService.class);
+
+    private final OrgRepository orgRepository;
+
+    private final EmpRepository empRepository;
+
+    private final ConcurrentMap<Integer, TenantOrgs> tenants = new ConcurrentHashMap<>();
+
+    public OrgTreeService(OrgRepository orgRepository, EmpRepository empRepository) {
+        this.orgRepository = orgRepository;
+        this.empRepository = empRepository;
+    }
+
+    /**
+     * Get the descendants of an org, in depth-first order.
+     *
+     * @param tenantId the tenant of the org.
+     * @param orgId the org.
+     * @return the ids of the orgs below this one, excluding itself, or empty if the tenant has no such org.
+     */
+    public Optional<List<Long>> getDescendantOrgIds(Integer tenantId, Long orgId) {
+        OrgTree tree = tenant(tenantId).tree();
+        Integer position = tree.positions.get(orgId);
+        if (position == null) {
+            return Optional.empty();
+        }
+        return Optional.of(slice(tree.orgIds, position + 1, tree.subtreeEnds[position]));
+    }
+
+    /**
+     * Get the employees of an org and of all its descendants.
+     *
+     * @param tenantId the tenant of the org.
+     * @param orgId the org.
+     * @return the ids of the employees in the subtree of this org, or empty if the tenant has no such org.
+     */
+    public Optional<List<Long>> getSubtreeEmpIds(Integer tenantId, Long orgId) {
+        OrgTree tree = tenant(tenantId).tree();
+        Integer position = tree.positions.get(orgId);
+        if (position == null) {
+            return Optional.empty();
+        }
+        return Optional.of(slice(tree.empIds, tree.empStarts[position], tree.empStarts[tree.subtreeEnds[position]]));
+    }
+
+    public void orgSaved(Org org) {
+        Long id = org.getId();
+        Integer tenantId = org.getTenantId();
+        afterCommit(() -> drop(tenantId, orgs -> orgs.parents.containsKey(id)));
+    }
+
+    public void orgMoved(Long id, Integer parentOrgId) {
+        afterCommit(() -> drop(null, orgs -> orgs.parents.containsKey(id)));
+    }
+
+    public void orgDeleted(Long id) {
+        afterCommit(() -> drop(null, orgs -> orgs.parents.containsKey(id)));
+    }
+
+    public void empSaved(Emp emp) {
+        Long id = emp.getId();
+        Integer tenantId = emp.getTenantId();
+        afterCommit(() -> drop(tenantId, orgs -> orgs.empOrgs.containsKey(id)));
+    }
+
+    public void empMoved(Long id, Integer orgId) {
+        afterCommit(() -> drop(null, orgs -> orgs.empOrgs.containsKey(id)));
+    }
+
+    public void empDeleted(Long id) {
+        afterCommit(() -> drop(null, orgs -> orgs.empOrgs.containsKey(id)));
+    }
+
+    /**
+     * Drop the loaded tenants, so that each is reloaded from the database on next access.
+     * <p>
+     * This is scheduled to get fired every minute by default, which bounds how long writes made by other
+     * nodes stay unseen.
+     */
+    @Scheduled(fixedDelayString = "${application.org-tree.reload-interval-ms:60000}")
+    public void reloadOrgTrees() {
+        log.debug("Dropping org trees of {} tenants", tenants.size());
+        tenants.clear();
+    }
+
+    /**
+     * Drop a tenant, and the loaded tenants holding a changed row, which it may have been moved out of.
+     */
+    private void drop(Integer tenantId, Predicate<TenantOrgs> holdsRow) {
+        if (tenantId != null) {
+            tenants.remove(tenantId);
+        }
+        tenants.values().removeIf(holdsRow);
+    }
+
+    private TenantOrgs tenant(Integer tenantId) {
+        return tenants.computeIfAbsent(tenantId, this::load);
+    }
+
+    private TenantOrgs load(Integer tenantId) {
+        log.debug("Loading org tree of tenant {}", tenantId);
+        TenantOrgs orgs = new TenantOrgs();
+        for (Org org : orgRepository.findAllByTenantId(tenantId)) {
+            orgs.parents.put(org.getId(), toLong(org.getParentOrgId()));
+        }
+        for (Emp emp : empRepository.findAllByTenantId(tenantId)) {
+            orgs.empOrgs.put(emp.getId(), toLong(emp.getOrgId()));
+        }
+        orgs.tree = OrgTree.build(orgs.parents, orgs.empOrgs);
+        return orgs;
+    }
+
+    private static List<Long> slice(long[] ids, int from, int to) {
+        return Arrays.stream(ids, from, to).boxed().toList();
+    }
+
+    private static Long toLong(Integer id) {
+        return id == null ? null : id.longValue();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * Orgs and employees of one tenant, as loaded, with the tree built from them.
+     */
+    private static final class TenantOrgs {
+
+        /** Parent of each org, {@code null} for roots. */
+        private final Map<Long, Long> parents = new HashMap<>();
+
+        /** Org of each employee, {@code null} for none. */
+        private final Map<Long, Long> empOrgs = new HashMap<>();
+
+        private OrgTree tree;
+
+        OrgTree tree() {
+            return tree;
+        }
+    }
+
+    /**
+     * Immutable array layout of the org hierarchy of one tenant.
+     * <p>
+     * Orgs are numbered by their position in a depth-first traversal: the subtree of the org at position
+     * {@code p} holds the positions {@code p} to {@code subtreeEnds[p]} (exclusive), and its employees are
+     * {@code empIds[empStarts[p]]} to {@code empIds[empStarts[subtreeEnds[p]]]} (exclusive).
+     * Orgs whose parent is missing, or part of a cycle, are laid out as roots.
+     */
+    private static final class OrgTree {
+
+        private final long[] orgIds;
+
+        private final int[] subtreeEnds;
+
+        private final Map<Long, Integer> positions;
+
+        private final int[] empStarts;
+
+        private final long[] empIds;
+
+        private OrgTree(long[] orgIds, int[] subtreeEnds, Map<Long, Integer> positions, int[] empStarts, long[] empIds) {
+            this.orgIds = orgIds;
+            this.subtreeEnds = subtreeEnds;
+            this.positions = positions;
+            this.empStarts = empStarts;
+            this.empIds = empIds;
+        }
+
+        static OrgTree build(Map<Long, Long> parents, Map<Long, Long> empOrgs) {
+            int size = parents.size();
+            long[] ids = new long[size];
+            Map<Long, Integer> indexes = new HashMap<>(size * 2);
+            for (Long id : parents.keySet()) {
+                ids[indexes.size()] = id;
+                indexes.put(id, indexes.size());
+            }
+
+            // children of each org, as ranges of one array
+            int[] parentIndexes = new int[size];
+            int[] childStarts = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                Long parentId = parents.get(ids[i]);
+                Integer parentIndex = parentId == null ? null : indexes.get(parentId);
+                parentIndexes[i] = parentIndex == null || parentIndex == i ? -1 : parentIndex;
+                if (parentIndexes[i] >= 0) {
+                    childStarts[parentIndexes[i] + 1]++;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                childStarts[i + 1] += childStarts[i];
+            }
+            int[] children = new int[childStarts[size]];
+            int[] childFill = Arrays.copyOf(childStarts, size);
+            for (int i = 0; i < size; i++) {
+                if (parentIndexes[i] >= 0) {
+                    children[childFill[parentIndexes[i]]++] = i;
+                }
+            }
+
+            long[] orgIds = new long[size];
+            int[] subtreeEnds = new int[size];
+            int[] positionOf = new int[size];
+            Arrays.fill(positionOf, -1);
+            int[] stack = new int[size * 2];
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                if (parentIndexes[i] < 0) {
+                    next = layOut(i, next, childStarts, children, ids, orgIds, subtreeEnds, positionOf, stack);
+                }
+            }
+            // orgs left over are on cycles, which no root reaches: lay each cycle out from one of its orgs
+            for (int i = 0; i < size; i++) {
+                if (positionOf[i] < 0) {
+                    next = layOut(i, next, childStarts, children, ids, orgIds, subtreeEnds, positionOf, stack);
+                }
+            }
+            Map<Long, Integer> positions = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                positions.put(ids[i], positionOf[i]);
+            }
+
+            // employees sorted by the position of their org
+            int[] empStarts = new int[size + 1];
+            empOrgs.forEach((empId, orgId) -> {
+                Integer position = orgId == null ? null : positions.get(orgId);
+                if (position != null) {
+                    empStarts[position + 1]++;
+                }
+            });
+            for (int i = 0; i < size; i++) {
+                empStarts[i + 1] += empStarts[i];
+            }
+            long[] empIds = new long[empStarts[size]];
+            int[] empFill = Arrays.copyOf(empStarts, size);
+            empOrgs.forEach((empId, orgId) -> {
+                Integer position = orgId == null ? null : positions.get(orgId);
+                if (position != null) {
+                    empIds[empFill[position]++] = empId;
+                }
+            });
+            return new OrgTree(orgIds, subtreeEnds, positions, empStarts, empIds);
+        }
+
+        /**
+         * Lay out the subtree of an org depth-first, without recursion so that deep hierarchies cannot
+         * overflow the stack.
+         *
+         * @return the position following the subtree.
+         */
+        private static int layOut(
+            int root,
+            int next,
+            int[] childStarts,
+            int[] children,
+            long[] ids,
+            long[] orgIds,
+            int[] subtreeEnds,
+            int[] positionOf,
+            int[] stack
+        ) {
+            // non-negative entries are orgs to enter, complemented ones are the positions of subtrees to close
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int entry = stack[--top];
+                if (entry < 0) {
+                    subtreeEnds[~entry] = next;
+                    continue;
+                }
+                if (positionOf[entry] >= 0) {
+                    continue;
+                }
+                positionOf[entry] = next;
+                orgIds[next] = ids[entry];
+                stack[top++] = ~next;
+                next++;
+                for (int c = childStarts[entry + 1] - 1; c >= childStarts[entry]; c--) {
+                    if (positionOf[children[c]] < 0) {
+                        stack[top++] = children[c];
+                    }
+                }
+            }
+            return next;
+        }
+    }
+}
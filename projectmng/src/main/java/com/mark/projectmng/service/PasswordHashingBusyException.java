@@ -0,0 +1,23 @@
+package com.mark.projectmng.service;
+
+/**
+ * Thrown when the password hashing workers are all busy and their queue is full.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Too many password operations in progress");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return how long the client should wait before trying again.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
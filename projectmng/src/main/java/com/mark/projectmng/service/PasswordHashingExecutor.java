@@ -0,0 +1,113 @@
+package com.mark.projectmng.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded pool running the password hashing and verification work, which is CPU bound by design.
+ * <p>
+ * At most {@code application.password-hashing.pool-size} passwords (the number of processors by default) are
+ * hashed at once, and at most {@code application.password-hashing.queue-capacity} (100 by default) wait for
+ * their turn. Beyond that, work is rejected with a {@link PasswordHashingBusyException}, answered with
+ * {@code 503 Service Unavailable}: a burst of logins is pushed back to the clients instead of taking all the CPU
+ * and servlet threads from the rest of the API.
+ */
+@Service
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final long retryAfterSeconds;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHashingExecutor(
+        @Value("${application.password-hashing.pool-size:0}") int poolSize,
+        @Value("${application.password-hashing.queue-capacity:100}") int queueCapacity,
+        @Value("${application.password-hashing.retry-after-seconds:5}") long retryAfterSeconds
+    ) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Run a task on the pool.
+     *
+     * @param task the task.
+     * @return the future result of the task.
+     * @throws PasswordHashingBusyException if the pool is saturated.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.debug("Password hashing rejected, {} tasks queued", executor.getQueue().size());
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Run a task on the pool and wait for its result.
+     *
+     * @param task the task.
+     * @return the result of the task.
+     * @throws PasswordHashingBusyException if the pool is saturated.
+     */
+    public <T> T call(Supplier<T> task) {
+        try {
+            return submit(task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(registry);
+        FunctionCounter
+            .builder("password.hashing.rejected", rejected, LongAdder::sum)
+            .description("The number of password operations rejected because the pool was saturated")
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
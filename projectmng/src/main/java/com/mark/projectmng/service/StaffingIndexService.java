@@ -0,0 +1,317 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.ProjectMember;
+import com.mark.projectmng.repository.ProjectMemberRepository;
+import com.mark.projectmng.service.dto.AssignmentDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service answering who is staffed on what, and when, from an in-memory index of the {@link ProjectMember} rows.
+ * <p>
+ * The projectMembers of a tenant are loaded once, on first access, and each project and each employee gets an
+ * interval tree over the periods of its assignments: a sorted array of assignments by start, laid out as an
+ * implicit balanced tree where each node also holds the latest end below it. Subtrees ending before the
+ * requested period are skipped, so a query costs O(log n + k) for k matching assignments.
+ * <p>
+ * An assignment without start or end is open on that side, and its end is exclusive. Writes are applied to
+ * the loaded tenants after commit; only the trees of the projects and employees they touch are rebuilt, on
+ * their next query. Loaded tenants are dropped periodically, so that writes made outside of this application
+ * cannot leave them off for long.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StaffingIndexService {
+
+    private final Logger log = LoggerFactory.getLogger(StaffingIndexService.class);
+
+    private final ProjectMemberRepository projectMemberRepository;
+
+    private final ConcurrentMap<Integer, TenantStaffing> tenants = new ConcurrentHashMap<>();
+
+    public StaffingIndexService(ProjectMemberRepository projectMemberRepository) {
+        this.projectMemberRepository = projectMemberRepository;
+    }
+
+    /**
+     * Get the assignments to a project overlapping a period.
+     *
+     * @param tenantId the tenant of the project.
+     * @param projectId the project.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the assignments, ordered by start.
+     */
+    public List<AssignmentDTO> getProjectAssignments(Integer tenantId, Integer projectId, Instant from, Instant to) {
+        return tenant(tenantId).projectTree(projectId).find(from, to);
+    }
+
+    /**
+     * Get the assignments of an employee overlapping a period.
+     *
+     * @param tenantId the tenant of the employee.
+     * @param empId the employee.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the assignments, ordered by start.
+     */
+    public List<AssignmentDTO> getEmpAssignments(Integer tenantId, Integer empId, Instant from, Instant to) {
+        return tenant(tenantId).empTree(empId).find(from, to);
+    }
+
+    public void assignmentSaved(ProjectMember projectMember) {
+        Assignment assignment = Assignment.of(projectMember);
+        Integer tenantId = projectMember.getTenantId();
+        afterCommit(() ->
+            tenants.forEach((loadedTenantId, staffing) -> {
+                if (loadedTenantId.equals(tenantId)) {
+                    staffing.put(assignment);
+                } else {
+                    staffing.remove(assignment.id);
+                }
+            })
+        );
+    }
+
+    public void assignmentDeleted(Long id) {
+        afterCommit(() -> tenants.values().forEach(staffing -> staffing.remove(id)));
+    }
+
+    /**
+     * Drop the loaded tenants, so that each is reloaded from the database on next access.
+     * <p>
+     * This is scheduled to get fired every hour by default.
+     */
+    @Scheduled(fixedDelayString = "${application.staffing-index.reload-interval-ms:3600000}")
+    public void reloadStaffingIndexes() {
+        log.debug("Dropping staffing indexes of {} tenants", tenants.size());
+        tenants.clear();
+    }
+
+    private TenantStaffing tenant(Integer tenantId) {
+        return tenants.computeIfAbsent(tenantId, this::load);
+    }
+
+    private TenantStaffing load(Integer tenantId) {
+        log.debug("Loading staffing index of tenant {}", tenantId);
+        TenantStaffing staffing = new TenantStaffing();
+        for (ProjectMember projectMember : projectMemberRepository.findAllByTenantId(tenantId)) {
+            staffing.put(Assignment.of(projectMember));
+        }
+        return staffing;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * Immutable copy of the indexed attributes of a projectMember.
+     */
+    private static final class Assignment {
+
+        private final Long id;
+
+        private final Integer projectId;
+
+        private final Integer empId;
+
+        private final Instant start;
+
+        private final Instant end;
+
+        private final String status;
+
+        private final Integer estimateInvestRatio;
+
+        private Assignment(ProjectMember projectMember) {
+            this.id = projectMember.getId();
+            this.projectId = projectMember.getProjectId();
+            this.empId = projectMember.getEmpId();
+            this.start = projectMember.getStartAt() == null ? Instant.MIN : projectMember.getStartAt();
+            this.end = projectMember.getEndAt() == null ? Instant.MAX : projectMember.getEndAt();
+            this.status = projectMember.getStatus();
+            this.estimateInvestRatio = projectMember.getEstimateInvestRatio();
+        }
+
+        static Assignment of(ProjectMember projectMember) {
+            return new Assignment(projectMember);
+        }
+
+        AssignmentDTO toDTO() {
+            return new AssignmentDTO(
+                id,
+                projectId,
+                empId,
+                Instant.MIN.equals(start) ? null : start,
+                Instant.MAX.equals(end) ? null : end,
+                status,
+                estimateInvestRatio
+            );
+        }
+    }
+
+    /**
+     * Assignments of one tenant, by project and by employee, with the trees built from them as long as they are unchanged.
+     */
+    private static final class TenantStaffing {
+
+        private final Map<Long, Assignment> assignments = new HashMap<>();
+
+        private final Map<Integer, Map<Long, Assignment>> byProject = new HashMap<>();
+
+        private final Map<Integer, Map<Long, Assignment>> byEmp = new HashMap<>();
+
+        private final Map<Integer, IntervalTree> projectTrees = new HashMap<>();
+
+        private final Map<Integer, IntervalTree> empTrees = new HashMap<>();
+
+        synchronized IntervalTree projectTree(Integer projectId) {
+            return tree(projectTrees, byProject, projectId);
+        }
+
+        synchronized IntervalTree empTree(Integer empId) {
+            return tree(empTrees, byEmp, empId);
+        }
+
+        synchronized void put(Assignment assignment) {
+            remove(assignment.id);
+            assignments.put(assignment.id, assignment);
+            add(byProject, projectTrees, assignment.projectId, assignment);
+            add(byEmp, empTrees, assignment.empId, assignment);
+        }
+
+        synchronized void remove(Long id) {
+            Assignment previous = assignments.remove(id);
+            if (previous != null) {
+                remove(byProject, projectTrees, previous.projectId, id);
+                remove(byEmp, empTrees, previous.empId, id);
+            }
+        }
+
+        private static IntervalTree tree(Map<Integer, IntervalTree> trees, Map<Integer, Map<Long, Assignment>> groups, Integer key) {
+            Map<Long, Assignment> group = groups.get(key);
+            if (group == null) {
+                return IntervalTree.EMPTY;
+            }
+            return trees.computeIfAbsent(key, k -> new IntervalTree(group.values()));
+        }
+
+        private static void add(
+            Map<Integer, Map<Long, Assignment>> groups,
+            Map<Integer, IntervalTree> trees,
+            Integer key,
+            Assignment assignment
+        ) {
+            if (key != null) {
+                groups.computeIfAbsent(key, k -> new HashMap<>()).put(assignment.id, assignment);
+                trees.remove(key);
+            }
+        }
+
+        private static void remove(Map<Integer, Map<Long, Assignment>> groups, Map<Integer, IntervalTree> trees, Integer key, Long id) {
+            if (key != null) {
+                Map<Long, Assignment> group = groups.get(key);
+                group.remove(id);
+                if (group.isEmpty()) {
+                    groups.remove(key);
+                }
+                trees.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Immutable interval tree: assignments sorted by start, where the node of a range {@code [lo, hi)} is its
+     * middle {@code (lo + hi) / 2} and {@code maxEnds} holds the latest end of each node's range.
+     */
+    private static final class IntervalTree {
+
+        private static final IntervalTree EMPTY = new IntervalTree(List.of());
+
+        private static final Comparator<Assignment> BY_START = Comparator
+            .comparing((Assignment assignment) -> assignment.start)
+            .thenComparing(assignment -> assignment.id);
+
+        private final Assignment[] assignments;
+
+        private final Instant[] maxEnds;
+
+        IntervalTree(Collection<Assignment> assignments) {
+            this.assignments = assignments.toArray(new Assignment[0]);
+            Arrays.sort(this.assignments, BY_START);
+            this.maxEnds = new Instant[this.assignments.length];
+            augment(0, this.assignments.length);
+        }
+
+        List<AssignmentDTO> find(Instant from, Instant to) {
+            List<AssignmentDTO> found = new ArrayList<>();
+            find(0, assignments.length, from, to, found);
+            return found;
+        }
+
+        private Instant augment(int lo, int hi) {
+            if (lo >= hi) {
+                return Instant.MIN;
+            }
+            int mid = (lo + hi) >>> 1;
+            Instant maxEnd = assignments[mid].end;
+            Instant left = augment(lo, mid);
+            Instant right = augment(mid + 1, hi);
+            if (left.isAfter(maxEnd)) {
+                maxEnd = left;
+            }
+            if (right.isAfter(maxEnd)) {
+                maxEnd = right;
+            }
+            maxEnds[mid] = maxEnd;
+            return maxEnd;
+        }
+
+        private void find(int lo, int hi, Instant from, Instant to, List<AssignmentDTO> found) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (!maxEnds[mid].isAfter(from)) {
+                // everything in this range has ended by the start of the period
+                return;
+            }
+            find(lo, mid, from, to, found);
+            Assignment assignment = assignments[mid];
+            if (assignment.start.isBefore(to)) {
+                if (assignment.end.isAfter(from)) {
+                    found.add(assignment.toDTO());
+                }
+                // the right half starts no earlier than this one, so only look there if this one starts in time
+                find(mid + 1, hi, from, to, found);
+            }
+        }
+    }
+}
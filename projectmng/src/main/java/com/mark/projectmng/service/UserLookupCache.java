@@ -0,0 +1,206 @@
+package com.mark.projectmng.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mark.projectmng.domain.User;
+import com.mark.projectmng.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service caching the users with their authorities, by login and by email, as looked up on each authentication.
+ * <p>
+ * Both caches hold at most {@code application.user-lookup.maximum-size} (10000 by default) entries each. Found
+ * users are kept {@code ttl-seconds} (3600), and reloaded in the background when accessed more than
+ * {@code refresh-seconds} (300) after being loaded, so that active users are served from the cache while staying
+ * up to date. Lookups finding no user are kept {@code negative-ttl-seconds} (30), so that unknown logins tried
+ * over and over do not each hit the database.
+ * <p>
+ * Concurrent misses for the same key share a single query. Loads run on a pool of {@code loader-threads} (4),
+ * which also bounds the number of lookups hitting the database at once.
+ * <p>
+ * Users are evicted after the commit of the transaction changing them, if any. Hits, misses and loads are
+ * published as {@code cache.*} meters, with the {@code cache} tag set to {@code usersByLogin} and
+ * {@code usersByEmail}.
+ */
+@Service
+public class UserLookupCache implements MeterBinder {
+
+    private final ExecutorService loader;
+
+    private final AsyncLoadingCache<String, Optional<User>> usersByLogin;
+
+    private final AsyncLoadingCache<String, Optional<User>> usersByEmail;
+
+    public UserLookupCache(
+        UserRepository userRepository,
+        @Value("${application.user-lookup.maximum-size:10000}") long maximumSize,
+        @Value("${application.user-lookup.ttl-seconds:3600}") long ttlSeconds,
+        @Value("${application.user-lookup.negative-ttl-seconds:30}") long negativeTtlSeconds,
+        @Value("${application.user-lookup.refresh-seconds:300}") long refreshSeconds,
+        @Value("${application.user-lookup.loader-threads:4}") int loaderThreads
+    ) {
+        this.loader = Executors.newFixedThreadPool(loaderThreads, new CustomizableThreadFactory("user-lookup-"));
+        Expiry<String, Optional<User>> expiry = new ByPresence(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(negativeTtlSeconds));
+        this.usersByLogin = build(maximumSize, expiry, refreshSeconds, userRepository::findOneWithAuthoritiesByLogin);
+        this.usersByEmail = build(maximumSize, expiry, refreshSeconds, userRepository::findOneWithAuthoritiesByEmailIgnoreCase);
+    }
+
+    /**
+     * Get a user with its authorities by login.
+     *
+     * @param login the login.
+     * @return the user, shared with other callers: it must not be modified.
+     */
+    public Optional<User> findOneWithAuthoritiesByLogin(String login) {
+        return get(usersByLogin, login);
+    }
+
+    /**
+     * Get a user with its authorities by email, ignoring case.
+     *
+     * @param email the email.
+     * @return the user, shared with other callers: it must not be modified.
+     */
+    public Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email) {
+        return get(usersByEmail, emailKey(email));
+    }
+
+    /**
+     * Evict a user, by its current login and email, after the commit of the current transaction if any.
+     *
+     * @param user the user.
+     */
+    public void evict(User user) {
+        evictAll(List.of(user));
+    }
+
+    /**
+     * Evict users, by their current logins and emails, after the commit of the current transaction if any.
+     *
+     * @param users the users.
+     */
+    public void evictAll(Collection<User> users) {
+        // the keys are taken now, as the users may still be changed before the commit
+        List<String> logins = new ArrayList<>(users.size());
+        List<String> emails = new ArrayList<>(users.size());
+        for (User user : users) {
+            logins.add(user.getLogin());
+            if (user.getEmail() != null) {
+                emails.add(emailKey(user.getEmail()));
+            }
+        }
+        afterCommit(() -> {
+            usersByLogin.synchronous().invalidateAll(logins);
+            usersByEmail.synchronous().invalidateAll(emails);
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, usersByLogin, "usersByLogin");
+        CaffeineCacheMetrics.monitor(registry, usersByEmail, "usersByEmail");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdown();
+    }
+
+    private AsyncLoadingCache<String, Optional<User>> build(
+        long maximumSize,
+        Expiry<String, Optional<User>> expiry,
+        long refreshSeconds,
+        Function<String, Optional<User>> load
+    ) {
+        return Caffeine
+            .newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(expiry)
+            .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+            .executor(loader)
+            .recordStats()
+            .buildAsync(load::apply);
+    }
+
+    private static Optional<User> get(AsyncLoadingCache<String, Optional<User>> cache, String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        try {
+            return cache.get(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * Expiry of a lookup after the time to live of found users, or of lookups finding none.
+     */
+    private static final class ByPresence implements Expiry<String, Optional<User>> {
+
+        private final long ttl;
+
+        private final long negativeTtl;
+
+        ByPresence(Duration ttl, Duration negativeTtl) {
+            this.ttl = ttl.toNanos();
+            this.negativeTtl = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<User> user, long currentTime) {
+            return user.isPresent() ? ttl : negativeTtl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<User> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<User> user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.mark.projectmng.service;
+
+import com.mark.projectmng.domain.JobLease;
+import com.mark.projectmng.domain.User;
+import com.mark.projectmng.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service purging the users who did not activate their account in time.
+ * <p>
+ * Users are deleted by chunks of {@code application.user-purge.chunk-size} (500 by default) consecutive ids, each
+ * in its own transaction, so that locks are only held for the time of a chunk however many users there are. The
+ * purge runs on a single node, holding the {@link JobLease} of the job; the last id of each chunk is recorded in
+ * the lease in the transaction of the chunk, so that a purge interrupted by the stop of its node is resumed from
+ * there by the next run. The users of each chunk are evicted from {@link UserLookupCache} once it is committed.
+ */
+@Service
+public class UserPurgeService {
+
+    private static final String JOB = "removeNotActivatedUsers";
+
+    private final Logger log = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private final UserRepository userRepository;
+
+    private final JobLeaseService jobLeaseService;
+
+    private final UserLookupCache userLookupCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final Duration activationDelay;
+
+    public UserPurgeService(
+        UserRepository userRepository,
+        JobLeaseService jobLeaseService,
+        UserLookupCache userLookupCache,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.user-purge.chunk-size:500}") int chunkSize,
+        @Value("${application.user-purge.activation-days:3}") long activationDays
+    ) {
+        this.userRepository = userRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.userLookupCache = userLookupCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.activationDelay = Duration.ofDays(activationDays);
+    }
+
+    /**
+     * Not activated users should be automatically deleted after 3 days.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:00 (am).
+     */
+    @Scheduled(cron = "${application.user-purge.cron:0 0 1 * * ?}")
+    public void removeNotActivatedUsers() {
+        Optional<JobLease> lease = jobLeaseService.acquire(JOB);
+        if (lease.isEmpty()) {
+            return;
+        }
+        long after = lease.get().getLastProcessedId() == null ? 0 : lease.get().getLastProcessedId();
+        if (after > 0) {
+            log.info("Resuming the purge of not activated users after id {}", after);
+        }
+        Instant before = Instant.now().minus(activationDelay);
+        int deleted = 0;
+        try {
+            while (true) {
+                long from = after;
+                Chunk chunk = transactionTemplate.execute(status -> purge(before, from, status));
+                if (chunk == null) {
+                    log.warn("Lost the lease of the purge of not activated users after id {}, stopping", after);
+                    return;
+                }
+                userLookupCache.evictAll(chunk.users);
+                deleted += chunk.deleted;
+                if (chunk.last) {
+                    break;
+                }
+                after = chunk.upTo;
+            }
+        } finally {
+            jobLeaseService.release(JOB);
+        }
+        log.debug("Deleted {} not activated users", deleted);
+    }
+
+    /**
+     * Delete the next chunk of not activated users, and record it as done.
+     *
+     * @return the chunk, or null if the lease was lost.
+     */
+    private Chunk purge(Instant before, long after, TransactionStatus status) {
+        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBeforeAndIdGreaterThanOrderByIdAsc(
+            before,
+            after,
+            PageRequest.of(0, chunkSize)
+        );
+        boolean last = users.size() < chunkSize;
+        long upTo = users.isEmpty() ? after : users.get(users.size() - 1).getId();
+        // a complete purge is recorded as no progress, so that the next one starts over
+        if (!jobLeaseService.checkpoint(JOB, last ? null : upTo)) {
+            status.setRollbackOnly();
+            return null;
+        }
+        if (users.isEmpty()) {
+            return new Chunk(users, 0, upTo, true);
+        }
+        userRepository.deleteNotActivatedAuthorities(before, after, upTo);
+        int deleted = userRepository.deleteNotActivated(before, after, upTo);
+        log.debug("Deleted {} not activated users with ids from {} to {}", deleted, after + 1, upTo);
+        return new Chunk(users, deleted, upTo, last);
+    }
+
+    /**
+     * The users of one chunk, of which those still not activated were deleted.
+     */
+    private static final class Chunk {
+
+        private final Collection<User> users;
+
+        private final int deleted;
+
+        private final long upTo;
+
+        private final boolean last;
+
+        Chunk(Collection<User> users, int deleted, long upTo, boolean last) {
+            this.users = users;
+            this.deleted = deleted;
+            this.upTo = upTo;
+            this.last = last;
+        }
+    }
+}
@@ -15,21 +15,25 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
 /**
  * Service class for managing users.
+ * <p>
+ * As a {@link UserDetailsPasswordService}, it stores the new hash of a password that Spring Security rehashed on
+ * successful authentication, because the {@link PasswordEncoder} tells that the old one should be upgraded.
  */
 @Service
 @Transactional
-public class UserService {
+public class UserService implements UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
@@ -39,18 +43,22 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final UserLookupCache userLookupCache;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        UserLookupCache userLookupCache,
+        PasswordHashingExecutor passwordHashingExecutor
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.userLookupCache = userLookupCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -111,7 +119,7 @@ public class UserService {
                 }
             });
         User newUser = new User();
-        String encryptedPassword = passwordEncoder.encode(password);
+        String encryptedPassword = passwordHashingExecutor.call(() -> passwordEncoder.encode(password));
         newUser.setLogin(userDTO.getLogin().toLowerCase());
         // new user gets initially a generated password
         newUser.setPassword(encryptedPassword);
@@ -263,16 +271,28 @@ public class UserService {
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
                 String currentEncryptedPassword = user.getPassword();
-                if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
+                if (!passwordHashingExecutor.call(() -> passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword))) {
                     throw new InvalidPasswordException();
                 }
-                String encryptedPassword = passwordEncoder.encode(newPassword);
+                String encryptedPassword = passwordHashingExecutor.call(() -> passwordEncoder.encode(newPassword));
                 user.setPassword(encryptedPassword);
                 this.clearUserCaches(user);
                 log.debug("Changed password for User: {}", user);
             });
     }
 
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newEncodedPassword);
+                this.clearUserCaches(user);
+                log.debug("Rehashed password for User: {}", user);
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newEncodedPassword).build();
+    }
+
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
@@ -283,30 +303,22 @@ public class UserService {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Get a user with its authorities, from {@link UserLookupCache}: the user must not be modified.
+     * <p>
+     * No transaction is started, so that a cache hit does not take a database connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
-    }
-
-    @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return userLookupCache.findOneWithAuthoritiesByLogin(login);
     }
 
     /**
-     * Not activated users should be automatically deleted after 3 days.
-     * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * Get the current user with its authorities, from {@link UserLookupCache}: the user must not be modified.
      */
-    @Scheduled(cron = "0 0 1 * * ?")
-    public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<User> getUserWithAuthorities() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(userLookupCache::findOneWithAuthoritiesByLogin);
     }
 
     /**
@@ -319,9 +331,6 @@ public class UserService {
     }
 
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
-        if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
-        }
+        userLookupCache.evict(user);
     }
 }
@@ -0,0 +1,119 @@
+package com.mark.projectmng.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing the assignment of an employee to a project over a period, as held by a
+ * {@link com.mark.projectmng.domain.ProjectMember}.
+ */
+public class AssignmentDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long projectMemberId;
+
+    private Integer projectId;
+
+    private Integer empId;
+
+    private Instant startAt;
+
+    private Instant endAt;
+
+    private String status;
+
+    private Integer estimateInvestRatio;
+
+    public AssignmentDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public AssignmentDTO(
+        Long projectMemberId,
+        Integer projectId,
+        Integer empId,
+        Instant startAt,
+        Instant endAt,
+        String status,
+        Integer estimateInvestRatio
+    ) {
+        this.projectMemberId = projectMemberId;
+        this.projectId = projectId;
+        this.empId = empId;
+        this.startAt = startAt;
+        this.endAt = endAt;
+        this.status = status;
+        this.estimateInvestRatio = estimateInvestRatio;
+    }
+
+    public Long getProjectMemberId() {
+        return projectMemberId;
+    }
+
+    public void setProjectMemberId(Long projectMemberId) {
+        this.projectMemberId = projectMemberId;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Integer getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(Integer empId) {
+        this.empId = empId;
+    }
+
+    public Instant getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(Instant startAt) {
+        this.startAt = startAt;
+    }
+
+    public Instant getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(Instant endAt) {
+        this.endAt = endAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getEstimateInvestRatio() {
+        return estimateInvestRatio;
+    }
+
+    public void setEstimateInvestRatio(Integer estimateInvestRatio) {
+        this.estimateInvestRatio = estimateInvestRatio;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AssignmentDTO{" +
+            "projectMemberId=" + projectMemberId +
+            ", projectId=" + projectId +
+            ", empId=" + empId +
+            ", startAt='" + startAt + "'" +
+            ", endAt='" + endAt + "'" +
+            ", status='" + status + "'" +
+            ", estimateInvestRatio=" + estimateInvestRatio +
+            "}";
+    }
+}
@@ -0,0 +1,98 @@
+package com.mark.projectmng.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of one row of a bulk request.
+ */
+public class BulkRowResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Outcome of a row.
+     */
+    public enum Status {
+        /** The row was stored. */
+        CREATED,
+        /** The row was rejected by validation and not stored. */
+        INVALID,
+        /** The row was valid but could not be stored, along with the rest of its batch. */
+        FAILED,
+    }
+
+    private int index;
+
+    private Status status;
+
+    private Long id;
+
+    private List<String> errors;
+
+    public BulkRowResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkRowResultDTO(int index, Status status, Long id, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public static BulkRowResultDTO created(int index, Long id) {
+        return new BulkRowResultDTO(index, Status.CREATED, id, List.of());
+    }
+
+    public static BulkRowResultDTO invalid(int index, List<String> errors) {
+        return new BulkRowResultDTO(index, Status.INVALID, null, errors);
+    }
+
+    public static BulkRowResultDTO failed(int index, String error) {
+        return new BulkRowResultDTO(index, Status.FAILED, null, List.of(error));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkRowResultDTO{" +
+            "index=" + index +
+            ", status=" + status +
+            ", id=" + id +
+            ", errors=" + errors +
+            "}";
+    }
+}
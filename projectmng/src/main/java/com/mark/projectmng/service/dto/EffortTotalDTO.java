@@ -0,0 +1,50 @@
+package com.mark.projectmng.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing the total effort booked over one period (day, week or month).
+ */
+public class EffortTotalDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate periodStart;
+
+    private Double totalEffort;
+
+    public EffortTotalDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public EffortTotalDTO(LocalDate periodStart, Double totalEffort) {
+        this.periodStart = periodStart;
+        this.totalEffort = totalEffort;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public Double getTotalEffort() {
+        return totalEffort;
+    }
+
+    public void setTotalEffort(Double totalEffort) {
+        this.totalEffort = totalEffort;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EffortTotalDTO{" +
+            "periodStart='" + periodStart + "'" +
+            ", totalEffort=" + totalEffort +
+            "}";
+    }
+}
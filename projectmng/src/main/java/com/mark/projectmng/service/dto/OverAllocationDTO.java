@@ -0,0 +1,75 @@
+package com.mark.projectmng.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing a period over which an employee is booked beyond capacity, summing the
+ * {@code estimateInvestRatio} of their overlapping assignments.
+ */
+public class OverAllocationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer empId;
+
+    private Instant startAt;
+
+    private Instant endAt;
+
+    private Integer maxInvestRatio;
+
+    public OverAllocationDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OverAllocationDTO(Integer empId, Instant startAt, Instant endAt, Integer maxInvestRatio) {
+        this.empId = empId;
+        this.startAt = startAt;
+        this.endAt = endAt;
+        this.maxInvestRatio = maxInvestRatio;
+    }
+
+    public Integer getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(Integer empId) {
+        this.empId = empId;
+    }
+
+    public Instant getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(Instant startAt) {
+        this.startAt = startAt;
+    }
+
+    public Instant getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(Instant endAt) {
+        this.endAt = endAt;
+    }
+
+    public Integer getMaxInvestRatio() {
+        return maxInvestRatio;
+    }
+
+    public void setMaxInvestRatio(Integer maxInvestRatio) {
+        this.maxInvestRatio = maxInvestRatio;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OverAllocationDTO{" +
+            "empId=" + empId +
+            ", startAt='" + startAt + "'" +
+            ", endAt='" + endAt + "'" +
+            ", maxInvestRatio=" + maxInvestRatio +
+            "}";
+    }
+}
@@ -0,0 +1,77 @@
+package com.mark.projectmng.statement;
+
+import java.util.Map;
+import net.ttddyy.dsproxy.QueryType;
+
+/**
+ * Assertions on the statements executed by a piece of code, to pin the number of statements of an endpoint in
+ * tests:
+ *
+ * <pre>
+ * assertStatementCount(2, () -&gt; restMockMvc.perform(get("/api/projects/{id}/members", id)));
+ * </pre>
+ *
+ * The code must run on the calling thread, as it does with {@code MockMvc}. Failures are reported with
+ * {@link AssertionError}, so that any test framework shows them as failures.
+ */
+public final class StatementAssertions {
+
+    /**
+     * Code whose statements are counted.
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private StatementAssertions() {}
+
+    /**
+     * Run an action and count its statements.
+     *
+     * @param action the action.
+     * @return the statistics of the statements it executed.
+     */
+    public static StatementStatistics record(Action action) throws Exception {
+        StatementStatistics statistics = StatementInspector.open("test");
+        try {
+            action.run();
+        } finally {
+            StatementInspector.close();
+        }
+        return statistics;
+    }
+
+    public static void assertStatementCount(int expected, Action action) throws Exception {
+        StatementStatistics statistics = record(action);
+        if (statistics.getCount() != expected) {
+            throw new AssertionError("Expected " + expected + " statements but got " + statistics.getCount() + ": " + statistics.getCountsBySql());
+        }
+    }
+
+    public static void assertStatementCount(QueryType type, int expected, Action action) throws Exception {
+        StatementStatistics statistics = record(action);
+        if (statistics.getCount(type) != expected) {
+            throw new AssertionError(
+                "Expected " + expected + " " + type + " statements but got " + statistics.getCount(type) + ": " + statistics.getCountsBySql()
+            );
+        }
+    }
+
+    public static void assertMaxStatementCount(int max, Action action) throws Exception {
+        StatementStatistics statistics = record(action);
+        if (statistics.getCount() > max) {
+            throw new AssertionError("Expected at most " + max + " statements but got " + statistics.getCount() + ": " + statistics.getCountsBySql());
+        }
+    }
+
+    /**
+     * Assert that no statement is executed more than a given number of times, that is there is no N+1 pattern.
+     */
+    public static void assertNoRepeatedStatement(int maxExecutions, Action action) throws Exception {
+        Map<String, Integer> repeated = record(action).getRepeatedStatements(maxExecutions + 1);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Expected no statement executed more than " + maxExecutions + " times but got " + repeated);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.mark.projectmng.statement;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Interceptor counting the statements of each request handled by a resource method, and inspecting them once
+ * it has completed.
+ * <p>
+ * Only what runs on the request thread is counted: the statements of an asynchronous response, such as a
+ * streamed export, are not.
+ */
+public class StatementInspectionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STATISTICS_ATTRIBUTE = StatementInspectionInterceptor.class.getName() + ".statistics";
+
+    private final StatementInspector statementInspector;
+
+    public StatementInspectionInterceptor(StatementInspector statementInspector) {
+        this.statementInspector = statementInspector;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            String origin = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+            request.setAttribute(STATISTICS_ATTRIBUTE, StatementInspector.open(origin));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the request thread is released, so the scope must be closed on it now
+        closeScope(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        closeScope(request);
+    }
+
+    private void closeScope(HttpServletRequest request) {
+        if (request.getAttribute(STATISTICS_ATTRIBUTE) != null) {
+            request.removeAttribute(STATISTICS_ATTRIBUTE);
+            StatementStatistics statistics = StatementInspector.close();
+            if (statistics != null) {
+                statementInspector.inspect(statistics);
+            }
+        }
+    }
+}
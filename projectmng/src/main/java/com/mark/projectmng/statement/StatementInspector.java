@@ -0,0 +1,123 @@
+package com.mark.projectmng.statement;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listener of the statements executed through the proxied {@link javax.sql.DataSource}.
+ * <p>
+ * Statements are counted in every scope open on the current thread, so that a test can count the statements of
+ * a request which counts its own. Slow statements are logged as they complete; the statements of a scope are
+ * checked for N+1 patterns and for their number when it is closed.
+ */
+public class StatementInspector implements QueryExecutionListener {
+
+    // innermost first, unset when no scope is open
+    private static final ThreadLocal<Deque<StatementStatistics>> SCOPES = new ThreadLocal<>();
+
+    private final Logger log = LoggerFactory.getLogger(StatementInspector.class);
+
+    private final long slowQueryThresholdMillis;
+
+    private final int nPlusOneThreshold;
+
+    private final int maxStatementsPerRequest;
+
+    public StatementInspector(long slowQueryThresholdMillis, int nPlusOneThreshold, int maxStatementsPerRequest) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    /**
+     * Open a scope on the current thread, which must be closed with {@link #close} on the same thread.
+     *
+     * @param origin what the scope is for, to be logged with its findings.
+     * @return the statistics of the scope.
+     */
+    public static StatementStatistics open(String origin) {
+        Deque<StatementStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        StatementStatistics statistics = new StatementStatistics(origin);
+        scopes.push(statistics);
+        return statistics;
+    }
+
+    /**
+     * Close the innermost scope of the current thread.
+     *
+     * @return its statistics, or {@code null} if no scope is open.
+     */
+    public static StatementStatistics close() {
+        Deque<StatementStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            return null;
+        }
+        StatementStatistics statistics = scopes.poll();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+        return statistics;
+    }
+
+    /**
+     * Log what is wrong with the statements of a closed scope: too many of them, or the same one repeated.
+     */
+    public void inspect(StatementStatistics statistics) {
+        if (statistics.getCount() > maxStatementsPerRequest) {
+            log.warn(
+                "{} statements in {}, more than {} ({} ms)",
+                statistics.getCount(),
+                statistics.getOrigin(),
+                maxStatementsPerRequest,
+                statistics.getElapsedMillis()
+            );
+        }
+        for (Map.Entry<String, Integer> repeated : statistics.getRepeatedStatements(nPlusOneThreshold).entrySet()) {
+            log.warn("N+1 suspected in {}: {} executions of {}", statistics.getOrigin(), repeated.getValue(), repeated.getKey());
+        }
+        log.debug("{}", statistics);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nothing to do before
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Deque<StatementStatistics> scopes = SCOPES.get();
+        long elapsed = execInfo.getElapsedTime();
+        if (scopes != null) {
+            for (int i = 0; i < queryInfoList.size(); i++) {
+                String sql = queryInfoList.get(i).getQuery();
+                // the elapsed time is that of the whole execution, whatever the number of statements it ran
+                long statementElapsed = i == 0 ? elapsed : 0;
+                for (StatementStatistics statistics : scopes) {
+                    statistics.record(sql, QueryUtils.getQueryType(sql), statementElapsed, execInfo.isBatch());
+                }
+            }
+        }
+        if (elapsed >= slowQueryThresholdMillis) {
+            StatementStatistics current = scopes == null ? null : scopes.peek();
+            log.warn(
+                "Slow statement in {}: {} ms{} for {}",
+                current == null ? "no request" : current.getOrigin(),
+                elapsed,
+                execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery()
+            );
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mark.projectmng.statement;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import net.ttddyy.dsproxy.QueryType;
+
+/**
+ * Counts of the statements executed in a scope, typically one HTTP request.
+ * <p>
+ * A batch counts as one statement, however many rows it carries. Instances are confined to the thread of
+ * their scope.
+ */
+public class StatementStatistics {
+
+    private final String origin;
+
+    private final Map<QueryType, Integer> countsByType = new EnumMap<>(QueryType.class);
+
+    private final Map<String, Integer> countsBySql = new HashMap<>();
+
+    private int count;
+
+    private long elapsedMillis;
+
+    StatementStatistics(String origin) {
+        this.origin = origin;
+    }
+
+    void record(String sql, QueryType type, long elapsed, boolean batch) {
+        count++;
+        elapsedMillis += elapsed;
+        countsByType.merge(type, 1, Integer::sum);
+        if (!batch) {
+            countsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * @return what opened the scope, such as the resource method handling the request.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCount(QueryType type) {
+        return countsByType.getOrDefault(type, 0);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return the number of executions of each distinct statement, batches excluded.
+     */
+    public Map<String, Integer> getCountsBySql() {
+        return Collections.unmodifiableMap(countsBySql);
+    }
+
+    /**
+     * Find the statements repeated at least a given number of times, which suggests they are run once per row of
+     * a previous result: the N+1 pattern.
+     *
+     * @param threshold the number of executions from which a statement is reported.
+     * @return the number of executions of each such statement.
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new HashMap<>();
+        countsBySql.forEach((sql, executions) -> {
+            if (executions >= threshold) {
+                repeated.put(sql, executions);
+            }
+        });
+        return repeated;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StatementStatistics{" +
+            "origin='" + origin + "'" +
+            ", count=" + count +
+            ", countsByType=" + countsByType +
+            ", elapsedMillis=" + elapsedMillis +
+            "}";
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Inspection of the SQL statements executed by the application: counts per request, N+1 and slow query
+ * detection, and assertions for tests.
+ */
+package com.mark.projectmng.statement;
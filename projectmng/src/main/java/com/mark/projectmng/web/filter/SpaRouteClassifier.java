@@ -0,0 +1,93 @@
+package com.mark.projectmng.web.filter;
+
+import java.util.Arrays;
+
+/**
+ * Classifier of request paths into routes of the client application, to be answered with its
+ * {@code index.html}, and the others.
+ * <p>
+ * A path is a client route when it starts with a slash, holds no period, and starts with none of the excluded
+ * prefixes. This is what {@code !path.startsWith(prefix) && !path.contains(".") && path.matches("/(.*)")} tells,
+ * in a single pass over the path and without allocating: the prefixes are compiled into a trie, stored as a
+ * table of transitions by state and ASCII character, which the path walks down while it is checked for periods.
+ */
+public final class SpaRouteClassifier {
+
+    private static final int ALPHABET = 128;
+
+    /**
+     * Next state by {@code state * ALPHABET + character}, 0 when no prefix goes on with that character: the root
+     * state 0 is never the target of a transition.
+     */
+    private final int[] transitions;
+
+    /**
+     * Whether each state ends an excluded prefix.
+     */
+    private final boolean[] excluded;
+
+    public SpaRouteClassifier(String... excludedPrefixes) {
+        int maxStates = 1;
+        for (String prefix : excludedPrefixes) {
+            maxStates += prefix.length();
+        }
+        int[] transitions = new int[maxStates * ALPHABET];
+        boolean[] excluded = new boolean[maxStates];
+        int states = 1;
+        for (String prefix : excludedPrefixes) {
+            if (prefix.isEmpty()) {
+                throw new IllegalArgumentException("Excluded prefixes cannot be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Excluded prefixes must be ASCII: " + prefix);
+                }
+                int transition = state * ALPHABET + c;
+                if (transitions[transition] == 0) {
+                    transitions[transition] = states++;
+                }
+                state = transitions[transition];
+            }
+            excluded[state] = true;
+        }
+        this.transitions = Arrays.copyOf(transitions, states * ALPHABET);
+        this.excluded = Arrays.copyOf(excluded, states);
+    }
+
+    /**
+     * @param path the request URI.
+     * @return whether the path is a route of the client application.
+     */
+    public boolean isSpaRoute(String path) {
+        int length = path.length();
+        if (length == 0 || path.charAt(0) != '/') {
+            return false;
+        }
+        // the state in the trie, or -1 once the path went off it
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '.' || isLineTerminator(c)) {
+                return false;
+            }
+            if (state >= 0) {
+                state = c < ALPHABET ? transitions[state * ALPHABET + c] : 0;
+                if (state == 0) {
+                    state = -1;
+                } else if (excluded[state]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the character is one of those a regex {@code .} does not match.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -4,29 +4,210 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+/**
+ * Answers the routes of the client application with its {@code index.html}.
+ * <p>
+ * Routes are told apart by a {@link SpaRouteClassifier}. The {@code index.html} is read from the classpath once,
+ * and kept in memory as is and gzipped: GET and HEAD requests are answered from there, gzipped when the client
+ * accepts it, with a strong ETag per encoding and {@code Cache-Control: no-cache}, so that browsers revalidate it
+ * on each visit and get a 304 while it is unchanged. Other requests, and all of them when there is no
+ * {@code index.html} on the classpath, as when the client is served by a development server, are forwarded to
+ * {@code /index.html} through the dispatcher.
+ */
 public class SpaWebFilter extends OncePerRequestFilter {
 
+    private static final String INDEX = "/index.html";
+
+    private static final String CONTENT_TYPE = "text/html;charset=UTF-8";
+
+    private static final String CACHE_CONTROL = "no-cache";
+
+    private final SpaRouteClassifier routes = new SpaRouteClassifier("/api", "/management", "/v3/api-docs");
+
+    private final IndexHtml index;
+
+    public SpaWebFilter() {
+        this(new ClassPathResource("static" + INDEX));
+    }
+
+    public SpaWebFilter(Resource index) {
+        this.index = index.exists() ? IndexHtml.of(index) : null;
+    }
+
     /**
      * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException {
-        String path = request.getRequestURI();
-        if (
-            !path.startsWith("/api") &&
-            !path.startsWith("/management") &&
-            !path.startsWith("/v3/api-docs") &&
-            !path.contains(".") &&
-            path.matches("/(.*)")
-        ) {
-            request.getRequestDispatcher("/index.html").forward(request, response);
+        if (!routes.isSpaRoute(request.getRequestURI())) {
+            filterChain.doFilter(request, response);
             return;
         }
+        String method = request.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (index == null || !(head || "GET".equals(method))) {
+            request.getRequestDispatcher(INDEX).forward(request, response);
+            return;
+        }
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? index.gzipEtag : index.etag;
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = gzip ? index.gzip : index.identity;
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(body.length);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (!head) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * @return whether an {@code Accept-Encoding} header lists gzip, or any encoding, with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean any = false;
+        int length = acceptEncoding.length();
+        int start = 0;
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int from = skipSpaces(acceptEncoding, start, end);
+            int parameters = acceptEncoding.indexOf(';', from);
+            if (parameters > end) {
+                parameters = -1;
+            }
+            int to = parameters < 0 ? end : parameters;
+            while (to > from && acceptEncoding.charAt(to - 1) == ' ') {
+                to--;
+            }
+            boolean accepted = parameters < 0 || !isZeroQuality(acceptEncoding, parameters + 1, end);
+            if (to - from == 4 && acceptEncoding.regionMatches(true, from, "gzip", 0, 4)) {
+                // gzip itself takes precedence over the wildcard
+                return accepted;
+            }
+            if (to - from == 1 && acceptEncoding.charAt(from) == '*') {
+                any = accepted;
+            }
+            start = end + 1;
+        }
+        return any;
+    }
+
+    /**
+     * @return whether an {@code If-None-Match} header holds an entity tag, compared weakly, or {@code *}.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        int length = ifNoneMatch.length();
+        int start = 0;
+        while (start < length) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int from = skipSpaces(ifNoneMatch, start, end);
+            int to = end;
+            while (to > from && ifNoneMatch.charAt(to - 1) == ' ') {
+                to--;
+            }
+            if (to - from == 1 && ifNoneMatch.charAt(from) == '*') {
+                return true;
+            }
+            if (ifNoneMatch.startsWith("W/", from)) {
+                from += 2;
+            }
+            if (to - from == etag.length() && ifNoneMatch.startsWith(etag, from)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String header, int from, int to) {
+        int q = skipSpaces(header, from, to);
+        if (q + 2 > to || !header.regionMatches(true, q, "q=", 0, 2)) {
+            return false;
+        }
+        for (int i = q + 2; i < to; i++) {
+            char c = header.charAt(i);
+            if (c != '0' && c != '.' && c != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        filterChain.doFilter(request, response);
+    private static int skipSpaces(String header, int from, int to) {
+        while (from < to && header.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * The {@code index.html}, as is and gzipped, with the entity tags of both.
+     */
+    private static final class IndexHtml {
+
+        private final byte[] identity;
+
+        private final byte[] gzip;
+
+        private final String etag;
+
+        private final String gzipEtag;
+
+        private IndexHtml(byte[] identity, byte[] gzip) {
+            this.identity = identity;
+            this.gzip = gzip;
+            String hash = DigestUtils.md5DigestAsHex(identity);
+            this.etag = "\"" + hash + "\"";
+            // each encoding is a representation of its own, with a tag of its own
+            this.gzipEtag = "\"" + hash + "-gzip\"";
+        }
+
+        static IndexHtml of(Resource resource) {
+            try (InputStream in = resource.getInputStream()) {
+                byte[] identity = StreamUtils.copyToByteArray(in);
+                ByteArrayOutputStream gzip = new ByteArrayOutputStream(identity.length / 2 + 64);
+                try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                    out.write(identity);
+                }
+                return new IndexHtml(identity, gzip.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + resource, e);
+            }
+        }
     }
 }
@@ -4,11 +4,13 @@ import static com.mark.projectmng.security.SecurityUtils.AUTHORITIES_KEY;
 import static com.mark.projectmng.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mark.projectmng.service.PasswordHashingExecutor;
 import com.mark.projectmng.web.rest.vm.LoginVM;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +22,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
@@ -46,24 +47,42 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        PasswordHashingExecutor passwordHashingExecutor
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
+    /**
+     * {@code POST /authenticate} : authenticate a user and issue a token.
+     * <p>
+     * The password is verified on the {@link PasswordHashingExecutor}, releasing the servlet thread meanwhile.
+     *
+     * @param loginVM the credentials.
+     * @return the token, or status {@code 401 (Unauthorized)} if the credentials are wrong, or status
+     * {@code 503 (Service Unavailable)} with a {@code Retry-After} header if too many logins are in progress.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public CompletableFuture<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody LoginVM loginVM) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = this.createToken(authentication, loginVM.isRememberMe());
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setBearerAuth(jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return passwordHashingExecutor
+            .submit(() -> authenticationManagerBuilder.getObject().authenticate(authenticationToken))
+            .thenApply(authentication -> {
+                String jwt = this.createToken(authentication, loginVM.isRememberMe());
+                HttpHeaders httpHeaders = new HttpHeaders();
+                httpHeaders.setBearerAuth(jwt);
+                return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+            });
     }
 
     /**
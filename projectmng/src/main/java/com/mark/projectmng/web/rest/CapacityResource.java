@@ -0,0 +1,36 @@
+package com.mark.projectmng.web.rest;
+
+import com.mark.projectmng.service.CapacityService;
+import com.mark.projectmng.service.dto.OverAllocationDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for reporting the over-allocations found by {@link CapacityService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class CapacityResource {
+
+    private final Logger log = LoggerFactory.getLogger(CapacityResource.class);
+
+    private final CapacityService capacityService;
+
+    public CapacityResource(CapacityService capacityService) {
+        this.capacityService = capacityService;
+    }
+
+    /**
+     * {@code GET  /capacity/over-allocations} : get the periods where employees of a tenant are booked beyond capacity.
+     *
+     * @param tenantId the tenant.
+     * @return the list of over-allocations, ordered by employee and start.
+     */
+    @GetMapping("/capacity/over-allocations")
+    public List<OverAllocationDTO> getOverAllocations(@RequestParam(value = "tenantId") Integer tenantId) {
+        log.debug("REST request to get over-allocations : {}", tenantId);
+        return capacityService.getOverAllocations(tenantId);
+    }
+}
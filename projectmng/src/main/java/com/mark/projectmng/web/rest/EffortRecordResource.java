@@ -2,20 +2,40 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.EffortRecord;
 import com.mark.projectmng.repository.EffortRecordRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
+import com.mark.projectmng.service.EffortRecordBulkService;
+import com.mark.projectmng.service.EffortRecordExportService;
+import com.mark.projectmng.service.EffortRollupService;
+import com.mark.projectmng.service.dto.BulkRowResultDTO;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
+import com.mark.projectmng.web.rest.vm.EffortRecordCursor;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -31,13 +51,37 @@ public class EffortRecordResource {
 
     private static final String ENTITY_NAME = "effortRecord";
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_BULK_SIZE = 10_000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final EffortRecordRepository effortRecordRepository;
 
-    public EffortRecordResource(EffortRecordRepository effortRecordRepository) {
+    private final EffortRecordExportService effortRecordExportService;
+
+    private final EffortRecordBulkService effortRecordBulkService;
+
+    private final EffortRollupService effortRollupService;
+
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    public EffortRecordResource(
+        EffortRecordRepository effortRecordRepository,
+        PartialUpdateRepository partialUpdateRepository,
+        EffortRecordExportService effortRecordExportService,
+        EffortRecordBulkService effortRecordBulkService,
+        EffortRollupService effortRollupService
+    ) {
         this.effortRecordRepository = effortRecordRepository;
+        this.effortRecordExportService = effortRecordExportService;
+        this.effortRecordBulkService = effortRecordBulkService;
+        this.effortRollupService = effortRollupService;
+        this.partialUpdateRepository = partialUpdateRepository;
     }
 
     /**
@@ -54,12 +98,33 @@ public class EffortRecordResource {
             throw new BadRequestAlertException("A new effortRecord cannot already have an ID", ENTITY_NAME, "idexists");
         }
         EffortRecord result = effortRecordRepository.save(effortRecord);
+        effortRollupService.recordCreated(result);
         return ResponseEntity
             .created(new URI("/api/effort-records/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /effort-records/bulk} : Create many new effortRecords at once.
+     * <p>
+     * Each row is validated on its own; valid rows are stored in JDBC batches while invalid ones are reported
+     * without failing the request.
+     *
+     * @param effortRecords the effortRecords to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each row, in the order
+     * of the request, or with status {@code 400 (Bad Request)} if the request holds more than {@value #MAX_BULK_SIZE} rows.
+     */
+    @PostMapping("/effort-records/bulk")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkRowResultDTO>> createEffortRecords(@NotNull @RequestBody List<EffortRecord> effortRecords) {
+        log.debug("REST request to bulk save {} EffortRecords", effortRecords.size());
+        if (effortRecords.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException("Too many effortRecords in a single request", ENTITY_NAME, "bulktoolarge");
+        }
+        return ResponseEntity.ok(effortRecordBulkService.createAll(effortRecords));
+    }
+
     /**
      * {@code PUT  /effort-records/:id} : Updates an existing effortRecord.
      *
@@ -83,11 +148,16 @@ public class EffortRecordResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!effortRecordRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        // the previous values are needed to move the effort between rollups
+        EffortRecord existingEffortRecord = effortRecordRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EffortRollupService.Contribution previous = EffortRollupService.Contribution.of(existingEffortRecord);
+        // the uid is not part of the request body, and must not be merged away
+        effortRecord.setUid(existingEffortRecord.getUid());
 
         EffortRecord result = effortRecordRepository.save(effortRecord);
+        effortRollupService.recordUpdated(previous, result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, effortRecord.getId().toString()))
@@ -96,19 +166,24 @@ public class EffortRecordResource {
 
     /**
      * {@code PATCH  /effort-records/:id} : Partial updates given fields of an existing effortRecord, field will ignore if it is null
+     * <p>
+     * The effortRecord's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the effortRecord is updated with a single statement, and the response has no body: only patches changing the effort, work date,
+     * project or employee read the row first, to move its effort between rollups.
      *
      * @param id the id of the effortRecord to save.
      * @param effortRecord the effortRecord to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated effortRecord,
-     * or with status {@code 400 (Bad Request)} if the effortRecord is not valid,
-     * or with status {@code 404 (Not Found)} if the effortRecord is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the effortRecord is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the effortRecord couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/effort-records/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<EffortRecord> partialUpdateEffortRecord(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody EffortRecord effortRecord
+        @NotNull @RequestBody EffortRecord effortRecord,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update EffortRecord partially : {}, {}", id, effortRecord);
         if (effortRecord.getId() == null) {
@@ -118,63 +193,155 @@ public class EffortRecordResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!effortRecordRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, effortRecord.getId().toString());
+        boolean minimal = PreferHeaderUtil.isReturnMinimal(prefer);
+        if (minimal && !affectsRollups(effortRecord)) {
+            if (partialUpdateRepository.updateNonNullAttributes(EffortRecord.class, id, effortRecord) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<EffortRecord> result = effortRecordRepository
-            .findById(effortRecord.getId())
-            .map(existingEffortRecord -> {
-                if (effortRecord.getEffort() != null) {
-                    existingEffortRecord.setEffort(effortRecord.getEffort());
-                }
-                if (effortRecord.getWorkDate() != null) {
-                    existingEffortRecord.setWorkDate(effortRecord.getWorkDate());
-                }
-                if (effortRecord.getNotes() != null) {
-                    existingEffortRecord.setNotes(effortRecord.getNotes());
-                }
-                if (effortRecord.getProjectId() != null) {
-                    existingEffortRecord.setProjectId(effortRecord.getProjectId());
-                }
-                if (effortRecord.getEmpId() != null) {
-                    existingEffortRecord.setEmpId(effortRecord.getEmpId());
-                }
-                if (effortRecord.getTenantId() != null) {
-                    existingEffortRecord.setTenantId(effortRecord.getTenantId());
-                }
-                if (effortRecord.getCreatedAt() != null) {
-                    existingEffortRecord.setCreatedAt(effortRecord.getCreatedAt());
-                }
-                if (effortRecord.getCreatedBy() != null) {
-                    existingEffortRecord.setCreatedBy(effortRecord.getCreatedBy());
-                }
-                if (effortRecord.getLastUpdatedAt() != null) {
-                    existingEffortRecord.setLastUpdatedAt(effortRecord.getLastUpdatedAt());
-                }
-                if (effortRecord.getLastUpdateBy() != null) {
-                    existingEffortRecord.setLastUpdateBy(effortRecord.getLastUpdateBy());
-                }
-
-                return existingEffortRecord;
-            })
-            .map(effortRecordRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, effortRecord.getId().toString())
-        );
+        EffortRecord existingEffortRecord = (
+            effortRecord.getTenantId() == null
+                ? effortRecordRepository.findById(id)
+                : effortRecordRepository.findOneByIdAndTenantId(id, effortRecord.getTenantId())
+        ).orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EffortRollupService.Contribution previous = EffortRollupService.Contribution.of(existingEffortRecord);
+        // the changed columns are written when the transaction is flushed
+        partialUpdateRepository.copyNonNullAttributes(EffortRecord.class, effortRecord, existingEffortRecord);
+        effortRollupService.recordUpdated(previous, existingEffortRecord);
+        if (minimal) {
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
+        }
+        return ResponseEntity.ok().headers(headers).body(existingEffortRecord);
+    }
+
+    private static boolean affectsRollups(EffortRecord patch) {
+        return patch.getEffort() != null || patch.getWorkDate() != null || patch.getProjectId() != null || patch.getEmpId() != null;
     }
 
     /**
-     * {@code GET  /effort-records} : get all the effortRecords.
+     * {@code GET  /effort-records} : get a page of the effortRecords of a tenant, ordered by work date.
+     * <p>
+     * Pages are addressed by an opaque keyset cursor rather than a page number: the {@code Link} header carries
+     * the {@code first} page and, unless this is the last page, the {@code next} one.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of effortRecords in body.
+     * @param tenantId the tenant whose effortRecords to list.
+     * @param cursor the cursor returned with the previous page, or none for the first page.
+     * @param size the maximum number of effortRecords to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of effortRecords in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid for this tenant.
      */
     @GetMapping("/effort-records")
-    public List<EffortRecord> getAllEffortRecords() {
-        log.debug("REST request to get all EffortRecords");
-        return effortRecordRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<EffortRecord>> getAllEffortRecords(
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        log.debug("REST request to get a page of EffortRecords : {}, {}, {}", tenantId, cursor, size);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // fetch one extra row to know whether there is a next page, without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<EffortRecord> rows;
+        if (cursor == null) {
+            rows = effortRecordRepository.findKeysetPage(tenantId, limit);
+        } else {
+            EffortRecordCursor after = decodeCursor(cursor, tenantId);
+            if (after.getWorkDate() == null) {
+                rows = effortRecordRepository.findKeysetPageAfterUndatedRecord(tenantId, after.getId(), limit);
+            } else {
+                rows = effortRecordRepository.findKeysetPageAfter(tenantId, after.getWorkDate(), after.getId(), limit);
+            }
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<EffortRecord> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? EffortRecordCursor.of(page.get(pageSize - 1)).encode() : null;
+        return ResponseEntity.ok().headers(generateKeysetPaginationHttpHeaders(nextCursor, pageSize)).body(page);
+    }
+
+    private EffortRecordCursor decodeCursor(String cursor, Integer tenantId) {
+        EffortRecordCursor decoded;
+        try {
+            decoded = EffortRecordCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        if (!decoded.getTenantId().equals(tenantId)) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        return decoded;
+    }
+
+    private HttpHeaders generateKeysetPaginationHttpHeaders(String nextCursor, int size) {
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("size", size);
+        StringBuilder link = new StringBuilder();
+        if (nextCursor != null) {
+            link.append("<").append(uriBuilder.replaceQueryParam("cursor", nextCursor).toUriString()).append(">; rel=\"next\",");
+        }
+        link.append("<").append(uriBuilder.replaceQueryParam("cursor").toUriString()).append(">; rel=\"first\"");
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    /**
+     * {@code GET  /effort-records/export} : export the effortRecords of a tenant over a date range.
+     * <p>
+     * The rows are streamed to the response as they are read from the database, so the export is never
+     * held in memory.
+     *
+     * @param tenantId the tenant whose effortRecords to export.
+     * @param from the first work day to export, inclusive (UTC).
+     * @param to the last work day to export, exclusive (UTC).
+     * @param format the output format, {@code ndjson} or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the exported effortRecords in body,
+     * or with status {@code 400 (Bad Request)} if the range or format is not valid.
+     */
+    @GetMapping("/effort-records/export")
+    @Transactional(readOnly = true)
+    public ResponseEntity<StreamingResponseBody> exportEffortRecords(
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format
+    ) {
+        log.debug("REST request to export EffortRecords : {}, {}, {}, {}", tenantId, from, to, format);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "rangeinvalid");
+        }
+        EffortRecordExportService.Format exportFormat;
+        try {
+            exportFormat = EffortRecordExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid export format", ENTITY_NAME, "formatinvalid");
+        }
+
+        // the body is written after this method returns, so the export service opens its own transaction
+        StreamingResponseBody body = out ->
+            effortRecordExportService.export(
+                tenantId,
+                from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                to.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                exportFormat,
+                out
+            );
+        String filename = "effort-records-" + tenantId + "-" + from + "-" + to + "." + exportFormat.getExtension();
+        return ResponseEntity
+            .ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
     }
 
     /**
@@ -184,6 +351,7 @@ public class EffortRecordResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the effortRecord, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/effort-records/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<EffortRecord> getEffortRecord(@PathVariable Long id) {
         log.debug("REST request to get EffortRecord : {}", id);
         Optional<EffortRecord> effortRecord = effortRecordRepository.findById(id);
@@ -199,7 +367,12 @@ public class EffortRecordResource {
     @DeleteMapping("/effort-records/{id}")
     public ResponseEntity<Void> deleteEffortRecord(@PathVariable Long id) {
         log.debug("REST request to delete EffortRecord : {}", id);
-        effortRecordRepository.deleteById(id);
+        effortRecordRepository
+            .findById(id)
+            .ifPresent(effortRecord -> {
+                effortRecordRepository.delete(effortRecord);
+                effortRollupService.recordDeleted(effortRecord);
+            });
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
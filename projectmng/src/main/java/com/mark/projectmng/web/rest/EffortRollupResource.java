@@ -0,0 +1,85 @@
+package com.mark.projectmng.web.rest;
+
+import com.mark.projectmng.service.EffortRollupService;
+import com.mark.projectmng.service.dto.EffortTotalDTO;
+import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for reading the effort totals maintained by {@link EffortRollupService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class EffortRollupResource {
+
+    private final Logger log = LoggerFactory.getLogger(EffortRollupResource.class);
+
+    private static final String ENTITY_NAME = "effortRollup";
+
+    private final EffortRollupService effortRollupService;
+
+    public EffortRollupResource(EffortRollupService effortRollupService) {
+        this.effortRollupService = effortRollupService;
+    }
+
+    /**
+     * {@code GET  /effort-rollups/projects/:projectId} : get the effort totals of the "projectId" project.
+     *
+     * @param projectId the id of the project.
+     * @param tenantId the tenant of the project.
+     * @param granularity the size of the periods, {@code day}, {@code week} or {@code month}.
+     * @param from the first day to count, inclusive.
+     * @param to the last day to count, exclusive.
+     * @return the list of totals, one per period holding some effort.
+     */
+    @GetMapping("/effort-rollups/projects/{projectId}")
+    public List<EffortTotalDTO> getProjectEffortTotals(
+        @PathVariable Integer projectId,
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+        @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get effort totals of Project : {}, {}, {}, {}, {}", projectId, tenantId, granularity, from, to);
+        return effortRollupService.getProjectTotals(tenantId, projectId, toGranularity(granularity, from, to), from, to);
+    }
+
+    /**
+     * {@code GET  /effort-rollups/emps/:empId} : get the effort totals of the "empId" employee.
+     *
+     * @param empId the id of the employee.
+     * @param tenantId the tenant of the employee.
+     * @param granularity the size of the periods, {@code day}, {@code week} or {@code month}.
+     * @param from the first day to count, inclusive.
+     * @param to the last day to count, exclusive.
+     * @return the list of totals, one per period holding some effort.
+     */
+    @GetMapping("/effort-rollups/emps/{empId}")
+    public List<EffortTotalDTO> getEmpEffortTotals(
+        @PathVariable Integer empId,
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+        @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get effort totals of Emp : {}, {}, {}, {}, {}", empId, tenantId, granularity, from, to);
+        return effortRollupService.getEmpTotals(tenantId, empId, toGranularity(granularity, from, to), from, to);
+    }
+
+    private EffortRollupService.Granularity toGranularity(String granularity, LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "rangeinvalid");
+        }
+        try {
+            return EffortRollupService.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid granularity", ENTITY_NAME, "granularityinvalid");
+        }
+    }
+}
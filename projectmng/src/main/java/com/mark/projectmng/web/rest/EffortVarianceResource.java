@@ -0,0 +1,104 @@
+package com.mark.projectmng.web.rest;
+
+import com.mark.projectmng.domain.EffortVariance;
+import com.mark.projectmng.repository.EffortVarianceRepository;
+import com.mark.projectmng.service.EffortReconciliationService;
+import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for reading the {@link EffortVariance}s computed by {@link EffortReconciliationService}, and running it.
+ */
+@RestController
+@RequestMapping("/api")
+public class EffortVarianceResource {
+
+    private final Logger log = LoggerFactory.getLogger(EffortVarianceResource.class);
+
+    private static final String ENTITY_NAME = "effortVariance";
+
+    private final EffortVarianceRepository effortVarianceRepository;
+
+    private final EffortReconciliationService effortReconciliationService;
+
+    public EffortVarianceResource(
+        EffortVarianceRepository effortVarianceRepository,
+        EffortReconciliationService effortReconciliationService
+    ) {
+        this.effortVarianceRepository = effortVarianceRepository;
+        this.effortReconciliationService = effortReconciliationService;
+    }
+
+    /**
+     * {@code POST  /effort-variances/reconcile} : reconcile the planned and actual effort of a tenant over whole weeks.
+     *
+     * @param tenantId the tenant.
+     * @param from the first day to reconcile, widened to the start of its week.
+     * @param to the last day to reconcile, exclusive, widened to the start of the following week.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of variances written,
+     * or with status {@code 400 (Bad Request)} if the range is not valid or spans too many weeks,
+     * or with status {@code 409 (Conflict)} if another reconciliation is running.
+     */
+    @PostMapping("/effort-variances/reconcile")
+    public ResponseEntity<Integer> reconcileEffort(
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to reconcile effort : {}, {}, {}", tenantId, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "rangeinvalid");
+        }
+        Optional<Integer> written;
+        try {
+            written = effortReconciliationService.reconcileWeekByWeek(tenantId, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Date range too long", ENTITY_NAME, "rangetoolong");
+        }
+        return written.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * {@code GET  /effort-variances} : get a page of the effortVariances of a tenant, optionally of a single employee or project.
+     *
+     * @param tenantId the tenant.
+     * @param empId the employee to get the effortVariances of, if any.
+     * @param projectId the project to get the effortVariances of, if any and no employee is given.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of effortVariances in body.
+     */
+    @GetMapping("/effort-variances")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<EffortVariance>> getAllEffortVariances(
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "empId", required = false) Integer empId,
+        @RequestParam(value = "projectId", required = false) Integer projectId,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of EffortVariances : {}, {}, {}", tenantId, empId, projectId);
+        Page<EffortVariance> page;
+        if (empId != null) {
+            page = effortVarianceRepository.findAllByTenantIdAndEmpId(tenantId, empId, pageable);
+        } else if (projectId != null) {
+            page = effortVarianceRepository.findAllByTenantIdAndProjectId(tenantId, projectId, pageable);
+        } else {
+            page = effortVarianceRepository.findAllByTenantId(tenantId, pageable);
+        }
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+}
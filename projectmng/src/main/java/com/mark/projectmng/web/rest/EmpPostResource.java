@@ -2,7 +2,9 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.EmpPost;
 import com.mark.projectmng.repository.EmpPostRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,6 +13,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -34,8 +37,11 @@ public class EmpPostResource {
 
     private final EmpPostRepository empPostRepository;
 
-    public EmpPostResource(EmpPostRepository empPostRepository) {
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    public EmpPostResource(EmpPostRepository empPostRepository, PartialUpdateRepository partialUpdateRepository) {
         this.empPostRepository = empPostRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
     }
 
     /**
@@ -81,9 +87,11 @@ public class EmpPostResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!empPostRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EmpPost existingEmpPost = empPostRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the uid is not part of the request body, and must not be merged away
+        empPost.setUid(existingEmpPost.getUid());
 
         empPost.setIsPersisted();
         EmpPost result = empPostRepository.save(empPost);
@@ -95,19 +103,23 @@ public class EmpPostResource {
 
     /**
      * {@code PATCH  /emp-posts/:id} : Partial updates given fields of an existing empPost, field will ignore if it is null
+     * <p>
+     * The empPost's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the empPost is updated with a single statement, without being read, and the response has no body.
      *
      * @param id the id of the empPost to save.
      * @param empPost the empPost to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated empPost,
-     * or with status {@code 400 (Bad Request)} if the empPost is not valid,
-     * or with status {@code 404 (Not Found)} if the empPost is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the empPost is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the empPost couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/emp-posts/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<EmpPost> partialUpdateEmpPost(
         @PathVariable(value = "id", required = false) final EmpPostId id,
-        @RequestBody EmpPost empPost
+        @RequestBody EmpPost empPost,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update EmpPost partially : {}, {}", id, empPost);
         if (empPost.getId() == null) {
@@ -117,37 +129,22 @@ public class EmpPostResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!empPostRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, empPost.getId().toString());
+        if (PreferHeaderUtil.isReturnMinimal(prefer)) {
+            if (partialUpdateRepository.updateNonNullAttributes(EmpPost.class, id, empPost) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<EmpPost> result = empPostRepository
-            .findById(empPost.getId())
-            .map(existingEmpPost -> {
-                if (empPost.getTenantId() != null) {
-                    existingEmpPost.setTenantId(empPost.getTenantId());
-                }
-                if (empPost.getCreatedAt() != null) {
-                    existingEmpPost.setCreatedAt(empPost.getCreatedAt());
-                }
-                if (empPost.getCreatedBy() != null) {
-                    existingEmpPost.setCreatedBy(empPost.getCreatedBy());
-                }
-                if (empPost.getLastUpdatedAt() != null) {
-                    existingEmpPost.setLastUpdatedAt(empPost.getLastUpdatedAt());
-                }
-                if (empPost.getLastUpdateBy() != null) {
-                    existingEmpPost.setLastUpdateBy(empPost.getLastUpdateBy());
-                }
-
-                return existingEmpPost;
-            })
-            .map(empPostRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, empPost.getId().toString())
-        );
+        EmpPost result = partialUpdateRepository
+            .findAndCopyNonNullAttributes(EmpPost.class, id, empPost)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok().headers(headers).body(result);
     }
 
     /**
@@ -156,6 +153,7 @@ public class EmpPostResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of empPosts in body.
      */
     @GetMapping("/emp-posts")
+    @Transactional(readOnly = true)
     public List<EmpPost> getAllEmpPosts() {
         log.debug("REST request to get all EmpPosts");
         return empPostRepository.findAll();
@@ -168,6 +166,7 @@ public class EmpPostResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the empPost, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/emp-posts/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<EmpPost> getEmpPost(@PathVariable EmpPostId id) {
         log.debug("REST request to get EmpPost : {}", id);
         Optional<EmpPost> empPost = empPostRepository.findById(id);
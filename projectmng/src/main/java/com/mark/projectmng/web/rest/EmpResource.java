@@ -2,7 +2,10 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.Emp;
 import com.mark.projectmng.repository.EmpRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
+import com.mark.projectmng.service.OrgTreeService;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -13,6 +16,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +40,14 @@ public class EmpResource {
 
     private final EmpRepository empRepository;
 
-    public EmpResource(EmpRepository empRepository) {
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    private final OrgTreeService orgTreeService;
+
+    public EmpResource(EmpRepository empRepository, PartialUpdateRepository partialUpdateRepository, OrgTreeService orgTreeService) {
         this.empRepository = empRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
+        this.orgTreeService = orgTreeService;
     }
 
     /**
@@ -54,6 +64,7 @@ public class EmpResource {
             throw new BadRequestAlertException("A new emp cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Emp result = empRepository.save(emp);
+        orgTreeService.empSaved(result);
         return ResponseEntity
             .created(new URI("/api/emps/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -81,11 +92,14 @@ public class EmpResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!empRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Emp existingEmp = empRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the uid is not part of the request body, and must not be merged away
+        emp.setUid(existingEmp.getUid());
 
         Emp result = empRepository.save(emp);
+        orgTreeService.empSaved(result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, emp.getId().toString()))
@@ -94,18 +108,24 @@ public class EmpResource {
 
     /**
      * {@code PATCH  /emps/:id} : Partial updates given fields of an existing emp, field will ignore if it is null
+     * <p>
+     * The emp's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the emp is updated with a single statement, without being read, and the response has no body.
      *
      * @param id the id of the emp to save.
      * @param emp the emp to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated emp,
-     * or with status {@code 400 (Bad Request)} if the emp is not valid,
-     * or with status {@code 404 (Not Found)} if the emp is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the emp is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the emp couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/emps/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Emp> partialUpdateEmp(@PathVariable(value = "id", required = false) final Long id, @NotNull @RequestBody Emp emp)
-        throws URISyntaxException {
+    public ResponseEntity<Emp> partialUpdateEmp(
+        @PathVariable(value = "id", required = false) final Long id,
+        @NotNull @RequestBody Emp emp,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
+    ) throws URISyntaxException {
         log.debug("REST request to partial update Emp partially : {}, {}", id, emp);
         if (emp.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -114,55 +134,28 @@ public class EmpResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!empRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, emp.getId().toString());
+        if (PreferHeaderUtil.isReturnMinimal(prefer)) {
+            if (partialUpdateRepository.updateNonNullAttributes(Emp.class, id, emp) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            if (emp.getOrgId() != null) {
+                orgTreeService.empMoved(id, emp.getOrgId());
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<Emp> result = empRepository
-            .findById(emp.getId())
-            .map(existingEmp -> {
-                if (emp.getName() != null) {
-                    existingEmp.setName(emp.getName());
-                }
-                if (emp.getOrgId() != null) {
-                    existingEmp.setOrgId(emp.getOrgId());
-                }
-                if (emp.getNum() != null) {
-                    existingEmp.setNum(emp.getNum());
-                }
-                if (emp.getIdNum() != null) {
-                    existingEmp.setIdNum(emp.getIdNum());
-                }
-                if (emp.getGender() != null) {
-                    existingEmp.setGender(emp.getGender());
-                }
-                if (emp.getDob() != null) {
-                    existingEmp.setDob(emp.getDob());
-                }
-                if (emp.getTenantId() != null) {
-                    existingEmp.setTenantId(emp.getTenantId());
-                }
-                if (emp.getCreatedAt() != null) {
-                    existingEmp.setCreatedAt(emp.getCreatedAt());
-                }
-                if (emp.getCreatedBy() != null) {
-                    existingEmp.setCreatedBy(emp.getCreatedBy());
-                }
-                if (emp.getLastUpdatedAt() != null) {
-                    existingEmp.setLastUpdatedAt(emp.getLastUpdatedAt());
-                }
-                if (emp.getLastUpdateBy() != null) {
-                    existingEmp.setLastUpdateBy(emp.getLastUpdateBy());
-                }
-
-                return existingEmp;
-            })
-            .map(empRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, emp.getId().toString())
-        );
+        Emp result = partialUpdateRepository
+            .findAndCopyNonNullAttributes(Emp.class, id, emp)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (emp.getOrgId() != null) {
+            orgTreeService.empMoved(id, emp.getOrgId());
+        }
+        return ResponseEntity.ok().headers(headers).body(result);
     }
 
     /**
@@ -171,6 +164,7 @@ public class EmpResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of emps in body.
      */
     @GetMapping("/emps")
+    @Transactional(readOnly = true)
     public List<Emp> getAllEmps() {
         log.debug("REST request to get all Emps");
         return empRepository.findAll();
@@ -183,6 +177,7 @@ public class EmpResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the emp, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/emps/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Emp> getEmp(@PathVariable Long id) {
         log.debug("REST request to get Emp : {}", id);
         Optional<Emp> emp = empRepository.findById(id);
@@ -199,6 +194,7 @@ public class EmpResource {
     public ResponseEntity<Void> deleteEmp(@PathVariable Long id) {
         log.debug("REST request to delete Emp : {}", id);
         empRepository.deleteById(id);
+        orgTreeService.empDeleted(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -2,7 +2,10 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.Org;
 import com.mark.projectmng.repository.OrgRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
+import com.mark.projectmng.service.OrgTreeService;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -13,6 +16,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +40,14 @@ public class OrgResource {
 
     private final OrgRepository orgRepository;
 
-    public OrgResource(OrgRepository orgRepository) {
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    private final OrgTreeService orgTreeService;
+
+    public OrgResource(OrgRepository orgRepository, PartialUpdateRepository partialUpdateRepository, OrgTreeService orgTreeService) {
         this.orgRepository = orgRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
+        this.orgTreeService = orgTreeService;
     }
 
     /**
@@ -54,6 +64,7 @@ public class OrgResource {
             throw new BadRequestAlertException("A new org cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Org result = orgRepository.save(org);
+        orgTreeService.orgSaved(result);
         return ResponseEntity
             .created(new URI("/api/orgs/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -81,11 +92,14 @@ public class OrgResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orgRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Org existingOrg = orgRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the uid is not part of the request body, and must not be merged away
+        org.setUid(existingOrg.getUid());
 
         Org result = orgRepository.save(org);
+        orgTreeService.orgSaved(result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, org.getId().toString()))
@@ -94,18 +108,24 @@ public class OrgResource {
 
     /**
      * {@code PATCH  /orgs/:id} : Partial updates given fields of an existing org, field will ignore if it is null
+     * <p>
+     * The org's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the org is updated with a single statement, without being read, and the response has no body.
      *
      * @param id the id of the org to save.
      * @param org the org to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated org,
-     * or with status {@code 400 (Bad Request)} if the org is not valid,
-     * or with status {@code 404 (Not Found)} if the org is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the org is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the org couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/orgs/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Org> partialUpdateOrg(@PathVariable(value = "id", required = false) final Long id, @NotNull @RequestBody Org org)
-        throws URISyntaxException {
+    public ResponseEntity<Org> partialUpdateOrg(
+        @PathVariable(value = "id", required = false) final Long id,
+        @NotNull @RequestBody Org org,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
+    ) throws URISyntaxException {
         log.debug("REST request to partial update Org partially : {}, {}", id, org);
         if (org.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -114,59 +134,43 @@ public class OrgResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orgRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, org.getId().toString());
+        if (PreferHeaderUtil.isReturnMinimal(prefer)) {
+            if (partialUpdateRepository.updateNonNullAttributes(Org.class, id, org) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            if (org.getParentOrgId() != null) {
+                orgTreeService.orgMoved(id, org.getParentOrgId());
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<Org> result = orgRepository
-            .findById(org.getId())
-            .map(existingOrg -> {
-                if (org.getName() != null) {
-                    existingOrg.setName(org.getName());
-                }
-                if (org.getTenantId() != null) {
-                    existingOrg.setTenantId(org.getTenantId());
-                }
-                if (org.getOrgType() != null) {
-                    existingOrg.setOrgType(org.getOrgType());
-                }
-                if (org.getHeadId() != null) {
-                    existingOrg.setHeadId(org.getHeadId());
-                }
-                if (org.getParentOrgId() != null) {
-                    existingOrg.setParentOrgId(org.getParentOrgId());
-                }
-                if (org.getCreatedAt() != null) {
-                    existingOrg.setCreatedAt(org.getCreatedAt());
-                }
-                if (org.getCreatedBy() != null) {
-                    existingOrg.setCreatedBy(org.getCreatedBy());
-                }
-                if (org.getLastUpdatedAt() != null) {
-                    existingOrg.setLastUpdatedAt(org.getLastUpdatedAt());
-                }
-                if (org.getLastUpdateBy() != null) {
-                    existingOrg.setLastUpdateBy(org.getLastUpdateBy());
-                }
-
-                return existingOrg;
-            })
-            .map(orgRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, org.getId().toString())
-        );
+        Org result = partialUpdateRepository
+            .findAndCopyNonNullAttributes(Org.class, id, org)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (org.getParentOrgId() != null) {
+            orgTreeService.orgMoved(id, org.getParentOrgId());
+        }
+        return ResponseEntity.ok().headers(headers).body(result);
     }
 
     /**
-     * {@code GET  /orgs} : get all the orgs.
+     * {@code GET  /orgs} : get all the orgs, optionally of a single tenant.
      *
+     * @param tenantId the tenant to get the orgs of, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orgs in body.
      */
     @GetMapping("/orgs")
-    public List<Org> getAllOrgs() {
-        log.debug("REST request to get all Orgs");
+    @Transactional(readOnly = true)
+    public List<Org> getAllOrgs(@RequestParam(value = "tenantId", required = false) Integer tenantId) {
+        log.debug("REST request to get all Orgs : {}", tenantId);
+        if (tenantId != null) {
+            return orgRepository.findAllByTenantId(tenantId);
+        }
         return orgRepository.findAll();
     }
 
@@ -177,12 +181,41 @@ public class OrgResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the org, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/orgs/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Org> getOrg(@PathVariable Long id) {
         log.debug("REST request to get Org : {}", id);
         Optional<Org> org = orgRepository.findById(id);
         return ResponseUtil.wrapOrNotFound(org);
     }
 
+    /**
+     * {@code GET  /orgs/:id/descendants} : get the ids of the orgs below the "id" org, at any depth.
+     *
+     * @param id the id of the org.
+     * @param tenantId the tenant of the org.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the descendant orgs, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/orgs/{id}/descendants")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Long>> getOrgDescendants(@PathVariable Long id, @RequestParam(value = "tenantId") Integer tenantId) {
+        log.debug("REST request to get descendants of Org : {}, {}", id, tenantId);
+        return ResponseUtil.wrapOrNotFound(orgTreeService.getDescendantOrgIds(tenantId, id));
+    }
+
+    /**
+     * {@code GET  /orgs/:id/emps} : get the ids of the emps of the "id" org and of all the orgs below it.
+     *
+     * @param id the id of the org.
+     * @param tenantId the tenant of the org.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the emps in the subtree, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/orgs/{id}/emps")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Long>> getOrgSubtreeEmps(@PathVariable Long id, @RequestParam(value = "tenantId") Integer tenantId) {
+        log.debug("REST request to get emps under Org : {}, {}", id, tenantId);
+        return ResponseUtil.wrapOrNotFound(orgTreeService.getSubtreeEmpIds(tenantId, id));
+    }
+
     /**
      * {@code DELETE  /orgs/:id} : delete the "id" org.
      *
@@ -193,6 +226,7 @@ public class OrgResource {
     public ResponseEntity<Void> deleteOrg(@PathVariable Long id) {
         log.debug("REST request to delete Org : {}", id);
         orgRepository.deleteById(id);
+        orgTreeService.orgDeleted(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -2,7 +2,9 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.OrgType;
 import com.mark.projectmng.repository.OrgTypeRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -13,6 +15,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +39,11 @@ public class OrgTypeResource {
 
     private final OrgTypeRepository orgTypeRepository;
 
-    public OrgTypeResource(OrgTypeRepository orgTypeRepository) {
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    public OrgTypeResource(OrgTypeRepository orgTypeRepository, PartialUpdateRepository partialUpdateRepository) {
         this.orgTypeRepository = orgTypeRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
     }
 
     /**
@@ -83,9 +89,11 @@ public class OrgTypeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orgTypeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        OrgType existingOrgType = orgTypeRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the uid is not part of the request body, and must not be merged away
+        orgType.setUid(existingOrgType.getUid());
 
         OrgType result = orgTypeRepository.save(orgType);
         return ResponseEntity
@@ -96,19 +104,23 @@ public class OrgTypeResource {
 
     /**
      * {@code PATCH  /org-types/:id} : Partial updates given fields of an existing orgType, field will ignore if it is null
+     * <p>
+     * The orgType's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the orgType is updated with a single statement, without being read, and the response has no body.
      *
      * @param id the id of the orgType to save.
      * @param orgType the orgType to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated orgType,
-     * or with status {@code 400 (Bad Request)} if the orgType is not valid,
-     * or with status {@code 404 (Not Found)} if the orgType is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the orgType is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the orgType couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/org-types/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<OrgType> partialUpdateOrgType(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody OrgType orgType
+        @NotNull @RequestBody OrgType orgType,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update OrgType partially : {}, {}", id, orgType);
         if (orgType.getId() == null) {
@@ -118,40 +130,22 @@ public class OrgTypeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orgTypeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, orgType.getId().toString());
+        if (PreferHeaderUtil.isReturnMinimal(prefer)) {
+            if (partialUpdateRepository.updateNonNullAttributes(OrgType.class, id, orgType) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<OrgType> result = orgTypeRepository
-            .findById(orgType.getId())
-            .map(existingOrgType -> {
-                if (orgType.getName() != null) {
-                    existingOrgType.setName(orgType.getName());
-                }
-                if (orgType.getTenantId() != null) {
-                    existingOrgType.setTenantId(orgType.getTenantId());
-                }
-                if (orgType.getCreatedAt() != null) {
-                    existingOrgType.setCreatedAt(orgType.getCreatedAt());
-                }
-                if (orgType.getCreatedBy() != null) {
-                    existingOrgType.setCreatedBy(orgType.getCreatedBy());
-                }
-                if (orgType.getLastUpdatedAt() != null) {
-                    existingOrgType.setLastUpdatedAt(orgType.getLastUpdatedAt());
-                }
-                if (orgType.getLastUpdateBy() != null) {
-                    existingOrgType.setLastUpdateBy(orgType.getLastUpdateBy());
-                }
-
-                return existingOrgType;
-            })
-            .map(orgTypeRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, orgType.getId().toString())
-        );
+        OrgType result = partialUpdateRepository
+            .findAndCopyNonNullAttributes(OrgType.class, id, orgType)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok().headers(headers).body(result);
     }
 
     /**
@@ -160,6 +154,7 @@ public class OrgTypeResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orgTypes in body.
      */
     @GetMapping("/org-types")
+    @Transactional(readOnly = true)
     public List<OrgType> getAllOrgTypes() {
         log.debug("REST request to get all OrgTypes");
         return orgTypeRepository.findAll();
@@ -172,6 +167,7 @@ public class OrgTypeResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the orgType, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/org-types/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<OrgType> getOrgType(@PathVariable Long id) {
         log.debug("REST request to get OrgType : {}", id);
         Optional<OrgType> orgType = orgTypeRepository.findById(id);
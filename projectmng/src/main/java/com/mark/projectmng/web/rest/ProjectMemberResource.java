@@ -2,7 +2,11 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.ProjectMember;
 import com.mark.projectmng.repository.ProjectMemberRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
+import com.mark.projectmng.service.CapacityService;
+import com.mark.projectmng.service.StaffingIndexService;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -13,6 +17,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,15 +41,29 @@ public class ProjectMemberResource {
 
     private final ProjectMemberRepository projectMemberRepository;
 
-    public ProjectMemberResource(ProjectMemberRepository projectMemberRepository) {
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    private final StaffingIndexService staffingIndexService;
+
+    private final CapacityService capacityService;
+
+    public ProjectMemberResource(
+        ProjectMemberRepository projectMemberRepository,
+        PartialUpdateRepository partialUpdateRepository,
+        StaffingIndexService staffingIndexService,
+        CapacityService capacityService
+    ) {
         this.projectMemberRepository = projectMemberRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
+        this.staffingIndexService = staffingIndexService;
+        this.capacityService = capacityService;
     }
 
     /**
      * {@code POST  /project-members} : Create a new projectMember.
      *
      * @param projectMember the projectMember to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new projectMember, or with status {@code 400 (Bad Request)} if the projectMember has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new projectMember, or with status {@code 400 (Bad Request)} if the projectMember has already an ID or would over-allocate its employee.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/project-members")
@@ -53,7 +72,9 @@ public class ProjectMemberResource {
         if (projectMember.getId() != null) {
             throw new BadRequestAlertException("A new projectMember cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        checkCapacity(projectMember);
         ProjectMember result = projectMemberRepository.save(projectMember);
+        staffingIndexService.assignmentSaved(result);
         return ResponseEntity
             .created(new URI("/api/project-members/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -66,7 +87,7 @@ public class ProjectMemberResource {
      * @param id the id of the projectMember to save.
      * @param projectMember the projectMember to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated projectMember,
-     * or with status {@code 400 (Bad Request)} if the projectMember is not valid,
+     * or with status {@code 400 (Bad Request)} if the projectMember is not valid or would over-allocate its employee,
      * or with status {@code 500 (Internal Server Error)} if the projectMember couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -83,11 +104,15 @@ public class ProjectMemberResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!projectMemberRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        ProjectMember existingProjectMember = projectMemberRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the uid is not part of the request body, and must not be merged away
+        projectMember.setUid(existingProjectMember.getUid());
 
+        checkCapacity(projectMember);
         ProjectMember result = projectMemberRepository.save(projectMember);
+        staffingIndexService.assignmentSaved(result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, projectMember.getId().toString()))
@@ -96,19 +121,24 @@ public class ProjectMemberResource {
 
     /**
      * {@code PATCH  /project-members/:id} : Partial updates given fields of an existing projectMember, field will ignore if it is null
+     * <p>
+     * The projectMember's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the projectMember is updated with a single statement, and the response has no body: only patches changing the assignment itself
+     * (period, status, ratio, project or employee) read the row first, to check capacity and update the staffing index.
      *
      * @param id the id of the projectMember to save.
      * @param projectMember the projectMember to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated projectMember,
-     * or with status {@code 400 (Bad Request)} if the projectMember is not valid,
-     * or with status {@code 404 (Not Found)} if the projectMember is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the projectMember is not valid, not found or would over-allocate its employee,
      * or with status {@code 500 (Internal Server Error)} if the projectMember couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/project-members/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<ProjectMember> partialUpdateProjectMember(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody ProjectMember projectMember
+        @NotNull @RequestBody ProjectMember projectMember,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update ProjectMember partially : {}, {}", id, projectMember);
         if (projectMember.getId() == null) {
@@ -118,66 +148,90 @@ public class ProjectMemberResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!projectMemberRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, projectMember.getId().toString());
+        boolean minimal = PreferHeaderUtil.isReturnMinimal(prefer);
+        boolean affectsStaffing = affectsStaffing(projectMember);
+        if (minimal && !affectsStaffing) {
+            if (partialUpdateRepository.updateNonNullAttributes(ProjectMember.class, id, projectMember) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<ProjectMember> result = projectMemberRepository
-            .findById(projectMember.getId())
-            .map(existingProjectMember -> {
-                if (projectMember.getStartAt() != null) {
-                    existingProjectMember.setStartAt(projectMember.getStartAt());
-                }
-                if (projectMember.getEndAt() != null) {
-                    existingProjectMember.setEndAt(projectMember.getEndAt());
-                }
-                if (projectMember.getStatus() != null) {
-                    existingProjectMember.setStatus(projectMember.getStatus());
-                }
-                if (projectMember.getEstimateInvestRatio() != null) {
-                    existingProjectMember.setEstimateInvestRatio(projectMember.getEstimateInvestRatio());
-                }
-                if (projectMember.getEmpId() != null) {
-                    existingProjectMember.setEmpId(projectMember.getEmpId());
-                }
-                if (projectMember.getProjectId() != null) {
-                    existingProjectMember.setProjectId(projectMember.getProjectId());
-                }
-                if (projectMember.getTenantId() != null) {
-                    existingProjectMember.setTenantId(projectMember.getTenantId());
-                }
-                if (projectMember.getCreatedAt() != null) {
-                    existingProjectMember.setCreatedAt(projectMember.getCreatedAt());
-                }
-                if (projectMember.getCreatedBy() != null) {
-                    existingProjectMember.setCreatedBy(projectMember.getCreatedBy());
-                }
-                if (projectMember.getLastUpdatedAt() != null) {
-                    existingProjectMember.setLastUpdatedAt(projectMember.getLastUpdatedAt());
-                }
-                if (projectMember.getLastUpdateBy() != null) {
-                    existingProjectMember.setLastUpdateBy(projectMember.getLastUpdateBy());
-                }
-
-                return existingProjectMember;
-            })
-            .map(projectMemberRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, projectMember.getId().toString())
+        ProjectMember existingProjectMember = (
+            projectMember.getTenantId() == null
+                ? projectMemberRepository.findById(id)
+                : projectMemberRepository.findOneByIdAndTenantId(id, projectMember.getTenantId())
+        ).orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the changed columns are written when the transaction is flushed
+        partialUpdateRepository.copyNonNullAttributes(ProjectMember.class, projectMember, existingProjectMember);
+        if (affectsStaffing) {
+            checkCapacity(existingProjectMember);
+            staffingIndexService.assignmentSaved(existingProjectMember);
+        }
+        if (minimal) {
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
+        }
+        return ResponseEntity.ok().headers(headers).body(existingProjectMember);
+    }
+
+    private void checkCapacity(ProjectMember projectMember) {
+        capacityService
+            .findOverAllocation(projectMember)
+            .ifPresent(overAllocation -> {
+                throw new BadRequestAlertException(
+                    "Employee would be allocated at " + overAllocation.getMaxInvestRatio() + "%",
+                    ENTITY_NAME,
+                    "overallocated"
+                );
+            });
+    }
+
+    private static boolean affectsStaffing(ProjectMember patch) {
+        return (
+            patch.getStartAt() != null ||
+            patch.getEndAt() != null ||
+            patch.getStatus() != null ||
+            patch.getEstimateInvestRatio() != null ||
+            patch.getEmpId() != null ||
+            patch.getProjectId() != null
         );
     }
 
     /**
-     * {@code GET  /project-members} : get all the projectMembers.
+     * {@code GET  /project-members} : get all the projectMembers, optionally of a single tenant and project or employee.
      *
+     * @param tenantId the tenant to get the projectMembers of, if any.
+     * @param projectId the project to get the projectMembers of, only used with a tenant.
+     * @param empId the employee to get the projectMembers of, only used with a tenant and no project.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of projectMembers in body.
      */
     @GetMapping("/project-members")
-    public List<ProjectMember> getAllProjectMembers() {
-        log.debug("REST request to get all ProjectMembers");
-        return projectMemberRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<ProjectMember> getAllProjectMembers(
+        @RequestParam(value = "tenantId", required = false) Integer tenantId,
+        @RequestParam(value = "projectId", required = false) Integer projectId,
+        @RequestParam(value = "empId", required = false) Integer empId
+    ) {
+        log.debug("REST request to get all ProjectMembers : {}, {}, {}", tenantId, projectId, empId);
+        if (tenantId == null) {
+            return projectMemberRepository.findAll();
+        }
+        if (projectId != null) {
+            return projectMemberRepository.findAllByTenantIdAndProjectIdOrderByStartAtAsc(tenantId, projectId);
+        }
+        if (empId != null) {
+            return projectMemberRepository.findAllByTenantIdAndEmpIdOrderByStartAtAsc(tenantId, empId);
+        }
+        return projectMemberRepository.findAllByTenantId(tenantId);
     }
 
     /**
@@ -187,6 +241,7 @@ public class ProjectMemberResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the projectMember, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/project-members/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<ProjectMember> getProjectMember(@PathVariable Long id) {
         log.debug("REST request to get ProjectMember : {}", id);
         Optional<ProjectMember> projectMember = projectMemberRepository.findById(id);
@@ -203,6 +258,7 @@ public class ProjectMemberResource {
     public ResponseEntity<Void> deleteProjectMember(@PathVariable Long id) {
         log.debug("REST request to delete ProjectMember : {}", id);
         projectMemberRepository.deleteById(id);
+        staffingIndexService.assignmentDeleted(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -2,7 +2,9 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.Project;
 import com.mark.projectmng.repository.ProjectRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -13,6 +15,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +39,11 @@ public class ProjectResource {
 
     private final ProjectRepository projectRepository;
 
-    public ProjectResource(ProjectRepository projectRepository) {
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    public ProjectResource(ProjectRepository projectRepository, PartialUpdateRepository partialUpdateRepository) {
         this.projectRepository = projectRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
     }
 
     /**
@@ -83,9 +89,11 @@ public class ProjectResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!projectRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Project existingProject = projectRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the uid is not part of the request body, and must not be merged away
+        project.setUid(existingProject.getUid());
 
         Project result = projectRepository.save(project);
         return ResponseEntity
@@ -96,19 +104,23 @@ public class ProjectResource {
 
     /**
      * {@code PATCH  /projects/:id} : Partial updates given fields of an existing project, field will ignore if it is null
+     * <p>
+     * The project's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the project is updated with a single statement, without being read, and the response has no body.
      *
      * @param id the id of the project to save.
      * @param project the project to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated project,
-     * or with status {@code 400 (Bad Request)} if the project is not valid,
-     * or with status {@code 404 (Not Found)} if the project is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the project is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the project couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/projects/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Project> partialUpdateProject(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Project project
+        @NotNull @RequestBody Project project,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update Project partially : {}, {}", id, project);
         if (project.getId() == null) {
@@ -118,62 +130,37 @@ public class ProjectResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!projectRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, project.getId().toString());
+        if (PreferHeaderUtil.isReturnMinimal(prefer)) {
+            if (partialUpdateRepository.updateNonNullAttributes(Project.class, id, project) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<Project> result = projectRepository
-            .findById(project.getId())
-            .map(existingProject -> {
-                if (project.getNum() != null) {
-                    existingProject.setNum(project.getNum());
-                }
-                if (project.getName() != null) {
-                    existingProject.setName(project.getName());
-                }
-                if (project.getStatus() != null) {
-                    existingProject.setStatus(project.getStatus());
-                }
-                if (project.getMngId() != null) {
-                    existingProject.setMngId(project.getMngId());
-                }
-                if (project.getContractId() != null) {
-                    existingProject.setContractId(project.getContractId());
-                }
-                if (project.getTenantId() != null) {
-                    existingProject.setTenantId(project.getTenantId());
-                }
-                if (project.getCreatedAt() != null) {
-                    existingProject.setCreatedAt(project.getCreatedAt());
-                }
-                if (project.getCreatedBy() != null) {
-                    existingProject.setCreatedBy(project.getCreatedBy());
-                }
-                if (project.getLastUpdatedAt() != null) {
-                    existingProject.setLastUpdatedAt(project.getLastUpdatedAt());
-                }
-                if (project.getLastUpdateBy() != null) {
-                    existingProject.setLastUpdateBy(project.getLastUpdateBy());
-                }
-
-                return existingProject;
-            })
-            .map(projectRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, project.getId().toString())
-        );
+        Project result = partialUpdateRepository
+            .findAndCopyNonNullAttributes(Project.class, id, project)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok().headers(headers).body(result);
     }
 
     /**
-     * {@code GET  /projects} : get all the projects.
+     * {@code GET  /projects} : get all the projects, optionally of a single tenant.
      *
+     * @param tenantId the tenant to get the projects of, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of projects in body.
      */
     @GetMapping("/projects")
-    public List<Project> getAllProjects() {
-        log.debug("REST request to get all Projects");
+    @Transactional(readOnly = true)
+    public List<Project> getAllProjects(@RequestParam(value = "tenantId", required = false) Integer tenantId) {
+        log.debug("REST request to get all Projects : {}", tenantId);
+        if (tenantId != null) {
+            return projectRepository.findAllByTenantId(tenantId);
+        }
         return projectRepository.findAll();
     }
 
@@ -184,6 +171,7 @@ public class ProjectResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the project, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/projects/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Project> getProject(@PathVariable Long id) {
         log.debug("REST request to get Project : {}", id);
         Optional<Project> project = projectRepository.findById(id);
@@ -0,0 +1,88 @@
+package com.mark.projectmng.web.rest;
+
+import com.mark.projectmng.service.StaffingIndexService;
+import com.mark.projectmng.service.dto.AssignmentDTO;
+import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for querying the staffing of projects and employees over time, as indexed by {@link StaffingIndexService}.
+ * <p>
+ * Each query takes either an instant {@code at}, or a period from {@code from} (inclusive) to {@code to} (exclusive).
+ */
+@RestController
+@RequestMapping("/api")
+public class StaffingResource {
+
+    private final Logger log = LoggerFactory.getLogger(StaffingResource.class);
+
+    private static final String ENTITY_NAME = "projectMember";
+
+    private final StaffingIndexService staffingIndexService;
+
+    public StaffingResource(StaffingIndexService staffingIndexService) {
+        this.staffingIndexService = staffingIndexService;
+    }
+
+    /**
+     * {@code GET  /staffing/projects/:projectId} : get the assignments to the "projectId" project at an instant or over a period.
+     *
+     * @param projectId the id of the project.
+     * @param tenantId the tenant of the project.
+     * @param at the instant to get the assignments at, if no period is given.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the list of assignments, ordered by start.
+     */
+    @GetMapping("/staffing/projects/{projectId}")
+    public List<AssignmentDTO> getProjectStaffing(
+        @PathVariable Integer projectId,
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        log.debug("REST request to get staffing of Project : {}, {}, {}, {}, {}", projectId, tenantId, at, from, to);
+        Instant[] period = toPeriod(at, from, to);
+        return staffingIndexService.getProjectAssignments(tenantId, projectId, period[0], period[1]);
+    }
+
+    /**
+     * {@code GET  /staffing/emps/:empId} : get the assignments of the "empId" employee at an instant or over a period.
+     *
+     * @param empId the id of the employee.
+     * @param tenantId the tenant of the employee.
+     * @param at the instant to get the assignments at, if no period is given.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the list of assignments, ordered by start.
+     */
+    @GetMapping("/staffing/emps/{empId}")
+    public List<AssignmentDTO> getEmpStaffing(
+        @PathVariable Integer empId,
+        @RequestParam(value = "tenantId") Integer tenantId,
+        @RequestParam(value = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        log.debug("REST request to get staffing of Emp : {}, {}, {}, {}, {}", empId, tenantId, at, from, to);
+        Instant[] period = toPeriod(at, from, to);
+        return staffingIndexService.getEmpAssignments(tenantId, empId, period[0], period[1]);
+    }
+
+    private Instant[] toPeriod(Instant at, Instant from, Instant to) {
+        if (at != null && from == null && to == null) {
+            // the assignments overlapping the smallest period starting at this instant are those running at it
+            return new Instant[] { at, at.plusNanos(1) };
+        }
+        if (at != null || from == null || to == null || !from.isBefore(to)) {
+            throw new BadRequestAlertException("Invalid period", ENTITY_NAME, "rangeinvalid");
+        }
+        return new Instant[] { from, to };
+    }
+}
@@ -2,7 +2,9 @@ package com.mark.projectmng.web.rest;
 
 import com.mark.projectmng.domain.Tenant;
 import com.mark.projectmng.repository.TenantRepository;
+import com.mark.projectmng.repository.PartialUpdateRepository;
 import com.mark.projectmng.web.rest.errors.BadRequestAlertException;
+import com.mark.projectmng.web.util.PreferHeaderUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -13,6 +15,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +39,11 @@ public class TenantResource {
 
     private final TenantRepository tenantRepository;
 
-    public TenantResource(TenantRepository tenantRepository) {
+    private final PartialUpdateRepository partialUpdateRepository;
+
+    public TenantResource(TenantRepository tenantRepository, PartialUpdateRepository partialUpdateRepository) {
         this.tenantRepository = tenantRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
     }
 
     /**
@@ -83,9 +89,11 @@ public class TenantResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!tenantRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Tenant existingTenant = tenantRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the uid is not part of the request body, and must not be merged away
+        tenant.setUid(existingTenant.getUid());
 
         Tenant result = tenantRepository.save(tenant);
         return ResponseEntity
@@ -96,19 +104,23 @@ public class TenantResource {
 
     /**
      * {@code PATCH  /tenants/:id} : Partial updates given fields of an existing tenant, field will ignore if it is null
+     * <p>
+     * The tenant's tenantId, if any, selects the row to update rather than being written. With {@code Prefer: return=minimal},
+     * the tenant is updated with a single statement, without being read, and the response has no body.
      *
      * @param id the id of the tenant to save.
      * @param tenant the tenant to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated tenant,
-     * or with status {@code 400 (Bad Request)} if the tenant is not valid,
-     * or with status {@code 404 (Not Found)} if the tenant is not found,
+     * or with status {@code 204 (NO_CONTENT)} if the request prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the tenant is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the tenant couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/tenants/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Tenant> partialUpdateTenant(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Tenant tenant
+        @NotNull @RequestBody Tenant tenant,
+        @RequestHeader(value = PreferHeaderUtil.PREFER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update Tenant partially : {}, {}", id, tenant);
         if (tenant.getId() == null) {
@@ -118,37 +130,22 @@ public class TenantResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!tenantRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, tenant.getId().toString());
+        if (PreferHeaderUtil.isReturnMinimal(prefer)) {
+            if (partialUpdateRepository.updateNonNullAttributes(Tenant.class, id, tenant) == 0) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            return ResponseEntity
+                .noContent()
+                .headers(headers)
+                .header(PreferHeaderUtil.PREFERENCE_APPLIED, PreferHeaderUtil.RETURN_MINIMAL)
+                .build();
         }
 
-        Optional<Tenant> result = tenantRepository
-            .findById(tenant.getId())
-            .map(existingTenant -> {
-                if (tenant.getName() != null) {
-                    existingTenant.setName(tenant.getName());
-                }
-                if (tenant.getCreatedAt() != null) {
-                    existingTenant.setCreatedAt(tenant.getCreatedAt());
-                }
-                if (tenant.getCreatedBy() != null) {
-                    existingTenant.setCreatedBy(tenant.getCreatedBy());
-                }
-                if (tenant.getLastUpdatedAt() != null) {
-                    existingTenant.setLastUpdatedAt(tenant.getLastUpdatedAt());
-                }
-                if (tenant.getLastUpdateBy() != null) {
-                    existingTenant.setLastUpdateBy(tenant.getLastUpdateBy());
-                }
-
-                return existingTenant;
-            })
-            .map(tenantRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, tenant.getId().toString())
-        );
+        Tenant result = partialUpdateRepository
+            .findAndCopyNonNullAttributes(Tenant.class, id, tenant)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok().headers(headers).body(result);
     }
 
     /**
@@ -157,6 +154,7 @@ public class TenantResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tenants in body.
      */
     @GetMapping("/tenants")
+    @Transactional(readOnly = true)
     public List<Tenant> getAllTenants() {
         log.debug("REST request to get all Tenants");
         return tenantRepository.findAll();
@@ -169,6 +167,7 @@ public class TenantResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the tenant, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/tenants/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Tenant> getTenant(@PathVariable Long id) {
         log.debug("REST request to get Tenant : {}", id);
         Optional<Tenant> tenant = tenantRepository.findById(id);
@@ -2,7 +2,9 @@ package com.mark.projectmng.web.rest.errors;
 
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
 
+import com.mark.projectmng.service.PasswordHashingBusyException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -135,6 +137,11 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
             (problemProperties == null || !problemProperties.containsKey(FIELD_ERRORS_KEY))
         ) problem.setProperty(FIELD_ERRORS_KEY, getFieldErrors((MethodArgumentNotValidException) err));
 
+        if (
+            (err instanceof ConstraintViolationException) &&
+            (problemProperties == null || !problemProperties.containsKey(FIELD_ERRORS_KEY))
+        ) problem.setProperty(FIELD_ERRORS_KEY, getFieldErrors((ConstraintViolationException) err));
+
         problem.setCause(buildCause(err.getCause(), request).orElse(null));
 
         return problem;
@@ -159,6 +166,20 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
             .toList();
     }
 
+    private List<FieldErrorVM> getFieldErrors(ConstraintViolationException ex) {
+        return ex
+            .getConstraintViolations()
+            .stream()
+            .map(v ->
+                new FieldErrorVM(
+                    StringUtils.uncapitalize(v.getRootBeanClass().getSimpleName()),
+                    v.getPropertyPath().toString(),
+                    v.getMessage()
+                )
+            )
+            .toList();
+    }
+
     private String extractTitleForResponseStatus(Throwable err, int statusCode) {
         ResponseStatus specialStatus = extractResponseStatus(err);
         return specialStatus == null ? HttpStatus.valueOf(statusCode).getReasonPhrase() : specialStatus.reason();
@@ -191,6 +212,7 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
 
     private URI getMappedType(Throwable err) {
         if (err instanceof MethodArgumentNotValidException exp) return ErrorConstants.CONSTRAINT_VIOLATION_TYPE;
+        if (err instanceof ConstraintViolationException) return ErrorConstants.CONSTRAINT_VIOLATION_TYPE;
         return ErrorConstants.DEFAULT_TYPE;
     }
 
@@ -198,6 +220,8 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (err instanceof MethodArgumentNotValidException) return ErrorConstants.ERR_VALIDATION; else if (
             err instanceof ConcurrencyFailureException || err.getCause() != null && err.getCause() instanceof ConcurrencyFailureException
         ) return ErrorConstants.ERR_CONCURRENCY_FAILURE;
+        if (err instanceof ConstraintViolationException) return ErrorConstants.ERR_VALIDATION;
+        if (err instanceof PasswordHashingBusyException) return ErrorConstants.ERR_PASSWORD_HASHING_BUSY;
         return null;
     }
 
@@ -221,6 +245,8 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (err instanceof AccessDeniedException) return HttpStatus.FORBIDDEN;
         if (err instanceof ConcurrencyFailureException) return HttpStatus.CONFLICT;
         if (err instanceof BadCredentialsException) return HttpStatus.UNAUTHORIZED;
+        if (err instanceof ConstraintViolationException) return HttpStatus.BAD_REQUEST;
+        if (err instanceof PasswordHashingBusyException) return HttpStatus.SERVICE_UNAVAILABLE;
         return null;
     }
 
@@ -230,6 +256,11 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
     }
 
     private HttpHeaders buildHeaders(Throwable err, NativeWebRequest request) {
+        if (err instanceof PasswordHashingBusyException busy) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()));
+            return headers;
+        }
         return err instanceof BadRequestAlertException
             ? HeaderUtil.createFailureAlert(
                 applicationName,
@@ -0,0 +1,97 @@
+package com.mark.projectmng.web.rest.vm;
+
+import com.mark.projectmng.domain.EffortRecord;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * View Model object for the opaque keyset cursor used to page through {@link EffortRecord}s.
+ * <p>
+ * A cursor points at the last row of a page, identified by its {@code (tenantId, workDate, id)} key,
+ * and is handed to clients as a URL-safe Base64 token so its layout can change without breaking them.
+ */
+public final class EffortRecordCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final Integer tenantId;
+
+    private final Instant workDate;
+
+    private final Long id;
+
+    public EffortRecordCursor(Integer tenantId, Instant workDate, Long id) {
+        this.tenantId = Objects.requireNonNull(tenantId);
+        this.workDate = workDate;
+        this.id = Objects.requireNonNull(id);
+    }
+
+    /**
+     * Build the cursor pointing after the given record.
+     *
+     * @param effortRecord the last record of a page.
+     * @return the cursor of the record.
+     */
+    public static EffortRecordCursor of(EffortRecord effortRecord) {
+        return new EffortRecordCursor(effortRecord.getTenantId(), effortRecord.getWorkDate(), effortRecord.getId());
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static EffortRecordCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split(SEPARATOR, -1);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            Integer tenantId = Integer.valueOf(parts[0]);
+            Instant workDate = parts[1].isEmpty() ? null : Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            Long id = Long.valueOf(parts[3]);
+            return new EffortRecordCursor(tenantId, workDate, id);
+        } catch (NumberFormatException | java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw =
+            tenantId +
+            SEPARATOR +
+            (workDate == null ? "" : workDate.getEpochSecond()) +
+            SEPARATOR +
+            (workDate == null ? "" : workDate.getNano()) +
+            SEPARATOR +
+            id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    public Instant getWorkDate() {
+        return workDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EffortRecordCursor{" +
+            "tenantId=" + tenantId +
+            ", workDate=" + workDate +
+            ", id=" + id +
+            '}';
+    }
+}
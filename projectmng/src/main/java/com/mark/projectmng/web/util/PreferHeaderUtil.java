@@ -0,0 +1,33 @@
+package com.mark.projectmng.web.util;
+
+/**
+ * Utility class for the {@code Prefer} request header (RFC 7240).
+ */
+public final class PreferHeaderUtil {
+
+    public static final String PREFER = "Prefer";
+
+    public static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+    public static final String RETURN_MINIMAL = "return=minimal";
+
+    private PreferHeaderUtil() {}
+
+    /**
+     * @param prefer the {@code Prefer} header of a request, if any.
+     * @return whether it asks for a minimal response, without the representation of the resource.
+     */
+    public static boolean isReturnMinimal(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            int parameters = preference.indexOf(';');
+            String token = (parameters < 0 ? preference : preference.substring(0, parameters)).replace("\"", "").replace(" ", "");
+            if (RETURN_MINIMAL.equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
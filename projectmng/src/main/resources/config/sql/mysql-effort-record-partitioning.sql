@@ -0,0 +1,34 @@
+-- Optional range partitioning of effort_record by work_date, for MySQL deployments.
+--
+-- Queries on effort_record are always scoped by tenant and bounded by work_date, so splitting the table
+-- per year lets MySQL prune every partition outside the requested range, and old years can be archived
+-- with ALTER TABLE ... EXCHANGE PARTITION instead of large deletes.
+--
+-- MySQL requires the partitioning column to be part of every unique key, so the primary key becomes
+-- (id, work_date) and work_date becomes mandatory. Ids still come from effort_record_sequence and stay
+-- unique on their own.
+--
+-- Run once, during a maintenance window: the ALTER TABLE statements copy the whole table.
+-- Add the partition of the next year before it starts, e.g. from a yearly job:
+--   ALTER TABLE effort_record REORGANIZE PARTITION p_future INTO (
+--       PARTITION p2031 VALUES LESS THAN ('2032-01-01 00:00:00'),
+--       PARTITION p_future VALUES LESS THAN MAXVALUE
+--   );
+
+-- Records without a work date cannot be placed in a partition: this must return 0 before going further.
+SELECT COUNT(*) FROM effort_record WHERE work_date IS NULL;
+
+ALTER TABLE effort_record
+    MODIFY work_date DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, work_date);
+
+ALTER TABLE effort_record
+    PARTITION BY RANGE COLUMNS (work_date) (
+        PARTITION p_history VALUES LESS THAN ('2024-01-01 00:00:00'),
+        PARTITION p2024 VALUES LESS THAN ('2025-01-01 00:00:00'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01-01 00:00:00'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01-01 00:00:00'),
+        PARTITION p2027 VALUES LESS THAN ('2028-01-01 00:00:00'),
+        PARTITION p_future VALUES LESS THAN MAXVALUE
+    );
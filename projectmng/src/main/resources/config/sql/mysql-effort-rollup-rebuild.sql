@@ -0,0 +1,27 @@
+-- Rebuilds effort_rollup from effort_record, for MySQL deployments.
+--
+-- effort_rollup holds one row per tenant, project, employee and day (UTC) with the total effort and the number of
+-- effortRecords booked, and is kept up to date as effortRecords are written. Run this script to create it from the
+-- existing effortRecords, or to rebuild it should it ever drift from them. It needs the uid column added by
+-- mysql-entity-uid.sql.
+--
+-- Rollup rows are upserted on their unique key, which only works when no column of the key is null: effortRecords
+-- without a project or an employee are rolled up under the id 0, and the first statements make both columns
+-- mandatory (they have no effect once done).
+--
+-- Run during a maintenance window, with no effortRecords being written: rollup deltas committed in the meantime
+-- would be lost. Work dates are stored in UTC (hibernate.jdbc.time_zone), so DATE(work_date) is the rollup day.
+-- Totals are read from effort_rollup as they are queried, so they are right again as soon as the script commits.
+
+-- ALTER TABLE commits on its own, and cannot make the columns mandatory while they hold nulls
+DELETE FROM effort_rollup;
+
+ALTER TABLE effort_rollup
+    MODIFY project_id INT NOT NULL DEFAULT 0,
+    MODIFY emp_id INT NOT NULL DEFAULT 0;
+
+INSERT INTO effort_rollup (uid, tenant_id, project_id, emp_id, work_day, total_effort, record_count)
+SELECT UUID_TO_BIN(UUID()), tenant_id, COALESCE(project_id, 0), COALESCE(emp_id, 0), DATE(work_date), SUM(effort), COUNT(*)
+FROM effort_record
+WHERE tenant_id IS NOT NULL AND work_date IS NOT NULL
+GROUP BY tenant_id, COALESCE(project_id, 0), COALESCE(emp_id, 0), DATE(work_date);
@@ -0,0 +1,57 @@
+-- Adds the uid column of the entities, for MySQL deployments.
+--
+-- Entities are compared on a random uid, assigned by the application before they are persisted, rather than on
+-- their database id, which only exists once they are. Hibernate maps it as BINARY(16). Existing rows get a random
+-- uid here, then the column becomes mandatory and unique.
+--
+-- Run once, before deploying the version that maps the column: each ALTER TABLE copies its table.
+-- When effort_record is partitioned (see mysql-effort-record-partitioning.sql), MySQL requires the partitioning
+-- column in every unique key: use UNIQUE KEY ux_effort_record_uid (uid, work_date) for that table instead.
+
+ALTER TABLE tenant ADD COLUMN uid BINARY(16);
+UPDATE tenant SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE tenant MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_tenant_uid (uid);
+
+ALTER TABLE org_type ADD COLUMN uid BINARY(16);
+UPDATE org_type SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE org_type MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_org_type_uid (uid);
+
+ALTER TABLE org ADD COLUMN uid BINARY(16);
+UPDATE org SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE org MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_org_uid (uid);
+
+ALTER TABLE emp ADD COLUMN uid BINARY(16);
+UPDATE emp SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE emp MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_emp_uid (uid);
+
+ALTER TABLE emp_post ADD COLUMN uid BINARY(16);
+UPDATE emp_post SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE emp_post MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_emp_post_uid (uid);
+
+ALTER TABLE project ADD COLUMN uid BINARY(16);
+UPDATE project SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE project MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_project_uid (uid);
+
+ALTER TABLE project_member ADD COLUMN uid BINARY(16);
+UPDATE project_member SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE project_member MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_project_member_uid (uid);
+
+ALTER TABLE effort_record ADD COLUMN uid BINARY(16);
+UPDATE effort_record SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE effort_record MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_effort_record_uid (uid);
+
+ALTER TABLE effort_rollup ADD COLUMN uid BINARY(16);
+UPDATE effort_rollup SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE effort_rollup MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_effort_rollup_uid (uid);
+
+ALTER TABLE effort_variance ADD COLUMN uid BINARY(16);
+UPDATE effort_variance SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE effort_variance MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_effort_variance_uid (uid);
+
+ALTER TABLE outbound_mail ADD COLUMN uid BINARY(16);
+UPDATE outbound_mail SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE outbound_mail MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_outbound_mail_uid (uid);
+
+ALTER TABLE jhi_user ADD COLUMN uid BINARY(16);
+UPDATE jhi_user SET uid = UUID_TO_BIN(UUID()) WHERE uid IS NULL;
+ALTER TABLE jhi_user MODIFY uid BINARY(16) NOT NULL, ADD UNIQUE KEY ux_jhi_user_uid (uid);